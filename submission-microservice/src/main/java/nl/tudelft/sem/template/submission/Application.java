@@ -5,14 +5,16 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Example microservice application.
  */
-@EntityScan("nl.tudelft.sem.template.model")
+@EntityScan({"nl.tudelft.sem.template.model", "nl.tudelft.sem.template.submission.models"})
 @ComponentScan(basePackages = {"nl.tudelft.sem.template.submission", "nl.tudelft.sem.template.submission.authentication"})
 @EnableJpaRepositories("nl.tudelft.sem.template.submission.repositories")
 @SpringBootApplication
+@EnableScheduling
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
@@ -1,5 +1,6 @@
 package nl.tudelft.sem.template.submission.authentication;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
@@ -16,4 +17,19 @@ public class AuthManager {
     public String getEmail() {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
+
+    /**
+     * Returns the bearer token of the request that is handled by the current thread.
+     * The token has to be read on the request thread; work handed over to other threads
+     * should capture it before.
+     *
+     * @return The token, or null if the request is not authenticated.
+     */
+    public String getToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getCredentials() == null) {
+            return null;
+        }
+        return authentication.getCredentials().toString();
+    }
 }
@@ -1,5 +1,6 @@
 package nl.tudelft.sem.template.submission.authentication;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -63,22 +64,24 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                 String token = directives[1];
 
                 try {
-                    if (jwtTokenVerifier.validateToken(token)) {
-
-                        String netId = jwtTokenVerifier.getNetIdFromToken(token);
-                        var authenticationToken = new UsernamePasswordAuthenticationToken(
-                                netId,
-                                null, List.of() // no credentials and no authorities
-                        );
-                        authenticationToken.setDetails(new WebAuthenticationDetailsSource()
-                                .buildDetails(request));
-
-                        // After setting the Authentication in the context, we specify
-                        // that the current user is authenticated. So it passes the
-                        // Spring Security Configurations successfully.
-                        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-
-                    }
+                    // Signature and expiration date are verified while parsing the token,
+                    // so it is parsed only once.
+                    Claims claims = jwtTokenVerifier.verify(token);
+
+                    String netId = claims.getSubject();
+                    // The token is kept as credentials, so that it can be forwarded
+                    // with the requests made to other microservices on behalf of this user.
+                    var authenticationToken = new UsernamePasswordAuthenticationToken(
+                            netId,
+                            token, List.of() // no authorities
+                    );
+                    authenticationToken.setDetails(new WebAuthenticationDetailsSource()
+                            .buildDetails(request));
+
+                    // After setting the Authentication in the context, we specify
+                    // that the current user is authenticated. So it passes the
+                    // Spring Security Configurations successfully.
+                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
 
                 } catch (ExpiredJwtException e) {
                     System.err.println("JWT token has expired.");
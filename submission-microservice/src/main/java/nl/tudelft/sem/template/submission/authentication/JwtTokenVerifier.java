@@ -2,30 +2,65 @@ package nl.tudelft.sem.template.submission.authentication;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.function.Function;
 
 import lombok.Getter;
+import nl.tudelft.sem.template.submission.components.cache.ExpiringCache;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 
 /**
  * Verifies the JWT token in the request for validity.
+ * <p>
+ * Claims of verified tokens are cached until the token expires, so a client reusing
+ * the same token only pays for parsing and checking the signature once.
+ * </p>
  */
 @Service
 public class JwtTokenVerifier {
+    private static final Duration CLAIMS_CACHE_TTL = Duration.ofHours(24);
+    private static final int CLAIMS_CACHE_SIZE = 10_000;
+
     @Value("${jwt.secret}")  // automatically loads jwt.secret from resources/application.properties
     private transient String jwtSecret;
 
+    /**
+     * Verified claims, keyed by the hash of the token they were read from.
+     */
     @Getter
-    private String lastEnteredToken;
+    private final transient ExpiringCache<String, Claims> claimsCache =
+            new ExpiringCache<>(CLAIMS_CACHE_TTL, CLAIMS_CACHE_SIZE);
+
+    /**
+     * Parses the token and verifies its signature and expiration date.
+     *
+     * @param token token
+     * @return claims of the token
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     * @throws IllegalArgumentException     if the token is empty
+     */
+    public Claims verify(String token) {
+        String key = hash(token);
+        Claims claims = claimsCache.getIfPresent(key);
+        if (claims == null) {
+            claims = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                claimsCache.put(key, claims, claims.getExpiration().toInstant());
+            }
+        }
+        return claims;
+    }
 
     /**
      * Validate the JWT token for expiration.
      */
     public boolean validateToken(String token) {
-        lastEnteredToken = token;
         return !isTokenExpired(token);
     }
 
@@ -43,11 +78,19 @@ public class JwtTokenVerifier {
     }
 
     private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
+    private static String hash(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("JWT token cannot be null");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,231 @@
+package nl.tudelft.sem.template.submission.components.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache with a time to live for every entry.
+ * <p>
+ * Entries are evicted in least recently used order once the cache is full. Concurrent
+ * lookups of the same missing key are deduplicated, so only one of them runs the loader
+ * and the others wait for its result.
+ * </p>
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the cached values
+ */
+public class ExpiringCache<K, V> {
+    private final Duration timeToLive;
+    private final int maxSize;
+    private final Clock clock;
+
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * ExpiringCache constructor.
+     *
+     * @param timeToLive how long an entry stays valid after it was loaded
+     * @param maxSize    maximum number of entries kept in the cache
+     */
+    public ExpiringCache(Duration timeToLive, int maxSize) {
+        this(timeToLive, maxSize, Clock.systemUTC());
+    }
+
+    /**
+     * ExpiringCache constructor.
+     *
+     * @param timeToLive how long an entry stays valid after it was loaded
+     * @param maxSize    maximum number of entries kept in the cache
+     * @param clock      clock used to expire entries
+     */
+    public ExpiringCache(Duration timeToLive, int maxSize, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size has to be positive.");
+        }
+        this.timeToLive = timeToLive;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ExpiringCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns cached value for a given key, or loads it if it is missing or expired.
+     * Only one loader runs at a time for the same key.
+     *
+     * @param key    key
+     * @param loader supplies the value on a cache miss
+     * @return cached or freshly loaded value
+     */
+    public V get(K key, Supplier<V> loader) {
+        Entry<V> entry = lookup(key);
+        if (entry != null) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return join(running);
+        }
+
+        try {
+            V value = loader.get();
+            put(key, value);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Returns cached value for a given key without loading it.
+     *
+     * @param key key
+     * @return cached value, or null if it is missing or expired
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = lookup(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Stores a value in the cache.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(K key, V value) {
+        put(key, value, clock.millis() + timeToLive.toMillis());
+    }
+
+    /**
+     * Stores a value in the cache until a given moment, or for the time to live
+     * of the cache if that ends earlier.
+     *
+     * @param key       key
+     * @param value     value
+     * @param expiresAt moment after which the value is no longer valid
+     */
+    public void put(K key, V value, Instant expiresAt) {
+        put(key, value, Math.min(expiresAt.toEpochMilli(), clock.millis() + timeToLive.toMillis()));
+    }
+
+    private void put(K key, V value, long expiresAt) {
+        Entry<V> entry = new Entry<>(value, expiresAt);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes a single entry from the cache.
+     *
+     * @param key key
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns number of entries currently stored, including expired ones not yet removed.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private Entry<V> lookup(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= clock.millis()) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package nl.tudelft.sem.template.submission.components.cache;
+
+import nl.tudelft.sem.template.model.Role;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
+import nl.tudelft.sem.template.submission.models.Attendee;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Roles of users in tracks, so that the attendees of a track are not downloaded on every request.
+ * <p>
+ * An entry is the role of every relevant attendee of a track, read from the attendee list in one
+ * pass. Users missing from an entry have no special role in the track.
+ * </p>
+ * <p>
+ * The users microservice does not notify this service when attendees change, so entries are
+ * never invalidated: a changed role is picked up at most two minutes later, once its entry expires.
+ * </p>
+ */
+@Component
+public class RoleCache {
+    private static final Duration ROLE_CACHE_TTL = Duration.ofMinutes(2);
+    private static final int ROLE_CACHE_SIZE = 1000;
+
+    private final ExpiringCache<String, Map<Long, Role>> roles = new ExpiringCache<>(ROLE_CACHE_TTL, ROLE_CACHE_SIZE);
+
+    private static String chairsKey(long trackId) {
+        return "chairs/" + trackId;
+    }
+
+    private static String subReviewersKey(Long eventId, Long trackId) {
+        return "sub_reviewers/" + trackId + "/" + eventId;
+    }
+
+    /**
+     * Returns cached roles of the chairs of a track.
+     *
+     * @param trackId track id
+     * @return roles by user id, or null if they are not cached
+     */
+    public Map<Long, Role> getTrackChairs(long trackId) {
+        return roles.getIfPresent(chairsKey(trackId));
+    }
+
+    /**
+     * Reads all attendees of a track and caches roles of its general and pc chairs.
+     * If a user has several chair roles, the first one listed is kept.
+     *
+     * @param trackId   track id
+     * @param attendees attendees of the track
+     * @return roles by user id
+     * @throws IOException if the attendees cannot be read
+     */
+    public Map<Long, Role> loadTrackChairs(long trackId, JsonArrayReader<Attendee> attendees) throws IOException {
+        Map<Long, Role> chairs = new HashMap<>();
+        attendees.forEach(attendee -> {
+            if (attendee.getRole().equals(Role.GENERAL_CHAIR) || attendee.getRole().equals(Role.PC_CHAIR)) {
+                chairs.putIfAbsent(attendee.getUserId(), attendee.getRole());
+            }
+            return true;
+        });
+        return store(chairsKey(trackId), chairs);
+    }
+
+    /**
+     * Returns cached sub-reviewers of a track.
+     *
+     * @param eventId event id
+     * @param trackId track id
+     * @return roles by user id, or null if they are not cached
+     */
+    public Map<Long, Role> getSubReviewers(Long eventId, Long trackId) {
+        return roles.getIfPresent(subReviewersKey(eventId, trackId));
+    }
+
+    /**
+     * Reads all sub-reviewers of a track and caches them.
+     *
+     * @param eventId   event id
+     * @param trackId   track id
+     * @param attendees sub-reviewers of the track
+     * @return roles by user id
+     * @throws IOException if the attendees cannot be read
+     */
+    public Map<Long, Role> loadSubReviewers(Long eventId, Long trackId,
+                                            JsonArrayReader<Attendee> attendees) throws IOException {
+        Map<Long, Role> subReviewers = new HashMap<>();
+        attendees.forEach(attendee -> {
+            subReviewers.putIfAbsent(attendee.getUserId(), Role.SUB_REVIEWER);
+            return true;
+        });
+        return store(subReviewersKey(eventId, trackId), subReviewers);
+    }
+
+    private Map<Long, Role> store(String key, Map<Long, Role> trackRoles) {
+        Map<Long, Role> result = Collections.unmodifiableMap(trackRoles);
+        roles.put(key, result);
+        return result;
+    }
+}
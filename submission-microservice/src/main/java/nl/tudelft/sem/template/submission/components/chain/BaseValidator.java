@@ -1,31 +1,31 @@
 package nl.tudelft.sem.template.submission.components.chain;
 
-import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.submission.components.strategy.GeneralStrategy;
 import nl.tudelft.sem.template.submission.services.HttpRequestService;
-import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 
+/**
+ * Link of a validation chain. The links of a chain are fixed when it is built,
+ * so one chain can be shared by all concurrent requests.
+ */
 @Component
 public abstract class BaseValidator implements Validator {
-    private Validator next;
-    protected HttpRequestService httpRequestService;
+    private final Validator next;
+    protected final HttpRequestService httpRequestService;
 
-    public void setNext(Validator h) {
-        this.next = h;
+    protected BaseValidator(HttpRequestService httpRequestService, Validator next) {
+        this.httpRequestService = httpRequestService;
+        this.next = next;
     }
 
     /**
      * Runs check on the next object in chain or ends traversing if we're in
      * last object in chain.
      */
-    protected GeneralStrategy checkNext(GeneralStrategy strategy,
-                                        Long userId, Long trackId,
-                                        Submission submission,
-                                        HttpMethod requestType) throws Exception {
+    protected GeneralStrategy checkNext(ValidationContext context) throws Exception {
         if (next == null) {
-            return strategy;
+            return context.getStrategy();
         }
-        return next.handle(strategy, userId, trackId, submission, requestType);
+        return next.handle(context);
     }
 }
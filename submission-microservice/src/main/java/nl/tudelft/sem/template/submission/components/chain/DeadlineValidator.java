@@ -8,23 +8,29 @@ import org.springframework.stereotype.Component;
 @Component
 public class DeadlineValidator extends BaseValidator {
 
+    public DeadlineValidator() {
+        this(null);
+    }
+
+    public DeadlineValidator(Validator next) {
+        super(null, next);
+    }
+
     /**
      * Checks if the user is an author of the submission.
      *
-     * @param submission that is being validated
-     * @param userId     user id that will be returned
-     * @return long which changes depending on what has happened
+     * @param context context of the request
+     * @return strategy resolved for the user
      */
-    public GeneralStrategy handle(GeneralStrategy strategy,
-                                  Long userId, Long trackId,
-                                  Submission submission,
-                                  HttpMethod requestType) throws Exception {
+    public GeneralStrategy handle(ValidationContext context) throws Exception {
+        HttpMethod requestType = context.getRequestType();
+        Submission submission = context.getSubmission();
 
-        boolean beforeDeadline = strategy.checkDeadline(submission.getTrackId());
+        boolean beforeDeadline = context.getStrategy().checkDeadline(submission.getTrackId());
         if ((requestType.equals(HttpMethod.PUT) || requestType.equals(HttpMethod.POST)) && !beforeDeadline) {
             throw new DeadlinePassedException("You cannot modify submission after the deadline.");
         }
 
-        return super.checkNext(strategy, userId, trackId, submission, requestType);
+        return super.checkNext(context);
     }
 }
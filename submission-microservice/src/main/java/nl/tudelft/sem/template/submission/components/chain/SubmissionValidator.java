@@ -19,26 +19,27 @@ import java.util.Random;
 public class SubmissionValidator extends BaseValidator {
 
     public SubmissionValidator(HttpRequestService httpRequestService) {
-        this.httpRequestService = httpRequestService;
+        this(httpRequestService, null);
+    }
+
+    public SubmissionValidator(HttpRequestService httpRequestService, Validator next) {
+        super(httpRequestService, next);
     }
 
     /**
      * Verifies that submission is valid.
      *
-     * @param strategy    strategy
-     * @param userId      user id
-     * @param trackId     track id
-     * @param submission  submission to be evaluated
-     * @param requestType type of request
+     * @param context context of the request, holding the submission to be evaluated
      * @return strategy used
      */
-    public GeneralStrategy handle(GeneralStrategy strategy, Long userId, Long trackId,
-                                  Submission submission, HttpMethod requestType) {
-
-        if (!requestType.equals(HttpMethod.POST)) {
-            return strategy;
+    public GeneralStrategy handle(ValidationContext context) throws Exception {
+        if (!context.getRequestType().equals(HttpMethod.POST)) {
+            return super.checkNext(context);
         }
 
+        Submission submission = context.getSubmission();
+        Long trackId = submission.getTrackId();
+
         String paperType = checkPaperType(submission);
         if (paperType != null || submission.getTrackId() == null) {
             throw new InvalidParameterException();
@@ -50,7 +51,7 @@ public class SubmissionValidator extends BaseValidator {
                     RequestType.USER).getEventId());
         }
         submission.setId(new Random().nextLong());
-        submission.setSubmittedBy(userId);
+        submission.setSubmittedBy(context.getUserId());
         submission.setCreated(LocalDateTime.now());
         submission.setUpdated(submission.getCreated());
         submission.setStatus(SubmissionStatus.OPEN);
@@ -62,7 +63,7 @@ public class SubmissionValidator extends BaseValidator {
         }
         authors.add(submission.getSubmittedBy());
         submission.setAuthors(authors);
-        return strategy;
+        return super.checkNext(context);
     }
 
     /**
@@ -3,94 +3,188 @@ package nl.tudelft.sem.template.submission.components.chain;
 import nl.tudelft.sem.template.model.Role;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.submission.authentication.AuthManager;
+import nl.tudelft.sem.template.submission.components.cache.RoleCache;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
 import nl.tudelft.sem.template.submission.components.strategy.*;
 import nl.tudelft.sem.template.submission.models.Attendee;
 import nl.tudelft.sem.template.submission.models.RequestType;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.EventStatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
 import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
 import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
 import nl.tudelft.sem.template.submission.services.HttpRequestService;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 public class UserValidator extends BaseValidator {
-    SubmissionRepository submissionRepository;
-    StatisticsRepository statisticsRepository;
-    AuthManager authManager;
+    private static final Logger logger = LoggerFactory.getLogger(UserValidator.class);
+
+    private final SubmissionRepository submissionRepository;
+    private final StatisticsRepository statisticsRepository;
+    private final KeywordCountRepository keywordCountRepository;
+    private final EventStatisticsRepository eventStatisticsRepository;
+    private final EventKeywordCountRepository eventKeywordCountRepository;
+    private final AuthManager authManager;
+    private final RoleCache roleCache;
+
+    /**
+     * AuthorizationValidator constructor for a validator that ends the chain.
+     */
+    @Autowired
+    public UserValidator(SubmissionRepository submissionRepository,
+                         StatisticsRepository statisticsRepository,
+                         KeywordCountRepository keywordCountRepository,
+                         EventStatisticsRepository eventStatisticsRepository,
+                         EventKeywordCountRepository eventKeywordCountRepository,
+                         HttpRequestService httpRequestService,
+                         AuthManager authManager,
+                         RoleCache roleCache) {
+        this(submissionRepository, statisticsRepository, keywordCountRepository, eventStatisticsRepository,
+                eventKeywordCountRepository, httpRequestService, authManager, roleCache, null);
+    }
 
     /**
      * AuthorizationValidator constructor.
      */
     public UserValidator(SubmissionRepository submissionRepository,
                          StatisticsRepository statisticsRepository,
+                         KeywordCountRepository keywordCountRepository,
+                         EventStatisticsRepository eventStatisticsRepository,
+                         EventKeywordCountRepository eventKeywordCountRepository,
                          HttpRequestService httpRequestService,
-                         AuthManager authManager) {
+                         AuthManager authManager,
+                         RoleCache roleCache,
+                         Validator next) {
+        super(httpRequestService, next);
         this.submissionRepository = submissionRepository;
         this.statisticsRepository = statisticsRepository;
-        this.httpRequestService = httpRequestService;
+        this.keywordCountRepository = keywordCountRepository;
+        this.eventStatisticsRepository = eventStatisticsRepository;
+        this.eventKeywordCountRepository = eventKeywordCountRepository;
         this.authManager = authManager;
+        this.roleCache = roleCache;
     }
 
-    private Role checkPermissions(long userId, Long trackId, Submission submission) {
+    /**
+     * Starts fetching attendees relevant for the role of a user.
+     * For a submission these are its sub-reviewers, for a track its chairs.
+     *
+     * @param trackId    track id, null if the request is about a submission
+     * @param submission submission
+     * @return future completed with a reader of the attendees
+     */
+    private CompletableFuture<JsonArrayReader<Attendee>> fetchAttendees(Long trackId, Submission submission) {
         if (trackId == null) {
-            long eventId = submission.getEventId();
-            trackId = submission.getTrackId();
+            return httpRequestService.getListReaderAsync("attendee/eventId=" + submission.getEventId()
+                            + "&trackId=" + submission.getTrackId() + "&role=sub_reviewer",
+                    Attendee.class, RequestType.USER);
+        }
+        return httpRequestService.getListReaderAsync("attendee/trackId=" + trackId,
+                Attendee.class, RequestType.USER);
+    }
 
-            if (submission.getAuthors().contains(userId)) {
-                return Role.AUTHOR;
-            }
-            List<Attendee> reviewers = httpRequestService.getList("attendee/eventId=" + eventId + "&trackId=" + trackId
-                            + "&role=sub_reviewer",
-                    Attendee[].class, RequestType.USER);
-
-            long[] userIds = reviewers.stream().mapToLong(Attendee::getUserId).toArray();
-            for (int i = 0; i < userIds.length; i++) {
-                if (userId == userIds[i]) {
-                    return Role.SUB_REVIEWER;
-                }
-            }
-        } else {
+    private Map<Long, Role> getCachedRoles(Long trackId, Submission submission) {
+        if (trackId == null) {
+            return roleCache.getSubReviewers(submission.getEventId(), submission.getTrackId());
+        }
+        return roleCache.getTrackChairs(trackId);
+    }
 
-            List<Attendee> chairsList = httpRequestService.getList("attendee/trackId="
-                            + trackId, Attendee[].class,
-                    RequestType.USER);
-            for (Attendee c : chairsList) {
-                if (c.getUserId() == userId && c.getRole().equals(Role.GENERAL_CHAIR)) {
-                    return Role.GENERAL_CHAIR;
-                }
-                if (c.getUserId() == userId && c.getRole().equals(Role.PC_CHAIR)) {
-                    return Role.PC_CHAIR;
-                }
+    /**
+     * Reads the attendees in one pass and caches the roles of all of them.
+     * The attendees are parsed here, on the request thread.
+     */
+    private Map<Long, Role> loadRoles(Long trackId, Submission submission,
+                                      CompletableFuture<JsonArrayReader<Attendee>> attendeesFuture) throws Exception {
+        try (JsonArrayReader<Attendee> attendees = await(attendeesFuture)) {
+            if (trackId == null) {
+                return roleCache.loadSubReviewers(submission.getEventId(), submission.getTrackId(), attendees);
             }
+            return roleCache.loadTrackChairs(trackId, attendees);
+        }
+    }
+
+    private Role checkPermissions(long userId, Long trackId, Submission submission, Map<Long, Role> roles) {
+        if (trackId == null && isAuthor(userId, submission)) {
+            return Role.AUTHOR;
         }
+        return roles.getOrDefault(userId, Role.ATTENDEE);
+    }
 
-        return Role.ATTENDEE;
+    /**
+     * Checks the authors of the submission if they are loaded already, otherwise looks the user up
+     * in the index on the authors table instead of loading all authors.
+     */
+    private boolean isAuthor(long userId, Submission submission) {
+        if (Hibernate.isInitialized(submission.getAuthors())) {
+            return submission.getAuthors().contains(userId);
+        }
+        return submissionRepository.isAuthor(submission.getId(), userId);
     }
 
     /**
      * Checks if the user is an author of the submission.
+     * The user id and the attendees needed to resolve the role are fetched concurrently,
+     * unless the roles of the attendees are cached already.
+     * New submissions are always made by an author, so no attendees are fetched for them.
      *
-     * @param strategy that is being validated
-     * @param userId   user id that will be returned
-     * @return long which changes depending on what has happened
+     * @param context context of the request, the user id and strategy are stored in it
+     * @return strategy resolved for the user
      */
-    public GeneralStrategy handle(GeneralStrategy strategy,
-                                  Long userId, Long trackId,
-                                  Submission submission,
-                                  HttpMethod requestType) throws Exception {
+    public GeneralStrategy handle(ValidationContext context) throws Exception {
+        final long start = System.nanoTime();
+        final Long trackId = context.getTrackId();
+        final Submission submission = context.getSubmission();
 
         String email = authManager.getEmail();
-        userId = Long.parseLong(httpRequestService.getAttribute("user/byEmail/" + email, RequestType.USER, "id"));
-        Role role = checkPermissions(userId, trackId, submission);
-        if (requestType.equals(HttpMethod.POST)) {
+        CompletableFuture<Long> userIdFuture = httpRequestService.getUserIdAsync(email)
+                .whenComplete((id, e) -> logStage("user id lookup", start));
+
+        Role role;
+        if (context.getRequestType().equals(HttpMethod.POST)) {
             role = Role.AUTHOR;
+        } else {
+            Map<Long, Role> roles = getCachedRoles(trackId, submission);
+            if (roles == null) {
+                roles = loadRoles(trackId, submission, fetchAttendees(trackId, submission));
+                logStage("attendees lookup", start);
+            }
+            role = checkPermissions(await(userIdFuture), trackId, submission, roles);
         }
+        Long userId = await(userIdFuture);
+        logStage("role resolution", start);
 
-        strategy = getStrategy(userId, role);
+        context.setUserId(userId);
+        context.setStrategy(getStrategy(userId, role));
 
-        return super.checkNext(strategy, userId, trackId, submission, requestType);
+        return super.checkNext(context);
+    }
+
+    private void logStage(String stage, long start) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} finished after {} ms", stage, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
     }
 
     private GeneralStrategy getStrategy(Long userId, Role role) {
@@ -103,11 +197,10 @@ public class UserValidator extends BaseValidator {
                 strategy = new SubmissionReviewerStrategy(submissionRepository, httpRequestService);
             }
             case PC_CHAIR -> {
-                strategy = new PcChairStrategy(statisticsRepository);
+                strategy = new PcChairStrategy(statisticsRepository, keywordCountRepository);
             }
             case GENERAL_CHAIR -> {
-                strategy = new GeneralChairStrategy(statisticsRepository,
-                        httpRequestService);
+                strategy = new GeneralChairStrategy(eventStatisticsRepository, eventKeywordCountRepository);
             }
             default -> {
                 strategy = new AttendeeStrategy();
@@ -0,0 +1,58 @@
+package nl.tudelft.sem.template.submission.components.chain;
+
+import lombok.Getter;
+import lombok.Setter;
+import nl.tudelft.sem.template.model.Submission;
+import nl.tudelft.sem.template.submission.components.strategy.GeneralStrategy;
+import org.springframework.http.HttpMethod;
+
+/**
+ * State of a single request passing through a validation chain.
+ * The validators themselves are shared between requests, so everything a validator
+ * resolves for a request (the user id and the strategy) is stored here instead.
+ */
+@Getter
+public class ValidationContext {
+    private final HttpMethod requestType;
+    private final Long trackId;
+    private final Submission submission;
+    @Setter
+    private Long userId;
+    @Setter
+    private GeneralStrategy strategy;
+
+    /**
+     * ValidationContext constructor.
+     *
+     * @param requestType type of request
+     * @param trackId     track id, null if the request is about a submission
+     * @param submission  submission, null if the request is about a track
+     */
+    public ValidationContext(HttpMethod requestType, Long trackId, Submission submission) {
+        this.requestType = requestType;
+        this.trackId = trackId;
+        this.submission = submission;
+    }
+
+    /**
+     * Creates a context for a request about a submission.
+     *
+     * @param requestType type of request
+     * @param submission  submission
+     * @return new context
+     */
+    public static ValidationContext forSubmission(HttpMethod requestType, Submission submission) {
+        return new ValidationContext(requestType, null, submission);
+    }
+
+    /**
+     * Creates a context for a request about a track, e.g. its statistics.
+     *
+     * @param requestType type of request
+     * @param trackId     track id
+     * @return new context
+     */
+    public static ValidationContext forTrack(HttpMethod requestType, long trackId) {
+        return new ValidationContext(requestType, trackId, null);
+    }
+}
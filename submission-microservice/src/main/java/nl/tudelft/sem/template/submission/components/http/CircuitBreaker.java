@@ -0,0 +1,140 @@
+package nl.tudelft.sem.template.submission.components.http;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stops sending requests to a microservice after it failed several times in a row.
+ * <p>
+ * The breaker opens after a given number of consecutive failures and rejects all requests
+ * while it is open. Once the open duration has passed it lets a single probe request through
+ * (half-open). The breaker closes again if the probe succeeds and reopens if it fails.
+ * </p>
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timesOpened = new LongAdder();
+
+    /**
+     * CircuitBreaker constructor.
+     *
+     * @param failureThreshold number of consecutive failures after which the breaker opens
+     * @param openDuration     how long the breaker stays open before a probe request is allowed
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, Clock.systemUTC());
+    }
+
+    /**
+     * CircuitBreaker constructor.
+     *
+     * @param failureThreshold number of consecutive failures after which the breaker opens
+     * @param openDuration     how long the breaker stays open before a probe request is allowed
+     * @param clock            clock used to end the open state
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold has to be positive.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a request may be sent. Every permitted request has to be
+     * followed by a call to {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}.
+     *
+     * @return true if the request may be sent, false if it should fail right away
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.millis() - openedAt < openDuration.toMillis()) {
+                rejected.increment();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                rejected.increment();
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a permit of a request that was not sent, e.g. because too many requests were waiting for
+     * the microservice. Nothing is recorded, but a half-open breaker lets the next request through as probe.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Records a successful request.
+     */
+    public synchronized void onSuccess() {
+        successes.increment();
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Records a failed request.
+     */
+    public synchronized void onFailure() {
+        failures.increment();
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = clock.millis();
+            probeInFlight = false;
+            timesOpened.increment();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getTimesOpened() {
+        return timesOpened.sum();
+    }
+}
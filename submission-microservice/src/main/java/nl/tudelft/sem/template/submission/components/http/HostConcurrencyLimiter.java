@@ -0,0 +1,138 @@
+package nl.tudelft.sem.template.submission.components.http;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of requests running at the same time against a single host.
+ * <p>
+ * Requests above the limit are queued and started once a running request to the same
+ * host completes. No thread is blocked while a request waits for its turn. Once the queue
+ * of a host is full, further requests are rejected, so a single slow microservice cannot
+ * hold on to all the threads waiting for responses.
+ * </p>
+ */
+public class HostConcurrencyLimiter {
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequests;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * HostConcurrencyLimiter constructor.
+     *
+     * @param maxConcurrentRequests maximum number of requests running against a single host
+     * @param maxQueuedRequests     maximum number of requests waiting for a single host
+     */
+    public HostConcurrencyLimiter(int maxConcurrentRequests, int maxQueuedRequests) {
+        if (maxConcurrentRequests <= 0 || maxQueuedRequests < 0) {
+            throw new IllegalArgumentException("Request limits cannot be negative.");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueuedRequests = maxQueuedRequests;
+    }
+
+    /**
+     * Starts a request now if the host has a free slot, or queues it otherwise.
+     *
+     * @param host    host the request is sent to
+     * @param request starts the request
+     * @return future completed with the result of the request, or failed with
+     *     {@link RejectedExecutionException} if the queue of the host is full
+     */
+    public <T> CompletableFuture<T> submit(String host, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> run(host, request, result);
+
+        Host state = hosts.computeIfAbsent(host, h -> new Host());
+        boolean startNow;
+        synchronized (state) {
+            startNow = state.active < maxConcurrentRequests;
+            if (startNow) {
+                state.active++;
+            } else if (state.queued.size() < maxQueuedRequests) {
+                state.queued.add(start);
+            } else {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("Too many requests waiting for " + host));
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    /**
+     * Returns number of requests currently running against a host.
+     *
+     * @param host host
+     * @return number of running requests
+     */
+    public int getActive(String host) {
+        Host state = hosts.get(host);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.active;
+        }
+    }
+
+    /**
+     * Returns number of requests waiting for a free slot of a host.
+     *
+     * @param host host
+     * @return number of queued requests
+     */
+    public int getQueued(String host) {
+        Host state = hosts.get(host);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.queued.size();
+        }
+    }
+
+    private <T> void run(String host, Supplier<CompletableFuture<T>> request, CompletableFuture<T> result) {
+        CompletableFuture<T> running;
+        try {
+            running = request.get();
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+        running.whenComplete((value, exception) -> {
+            release(host);
+            if (exception != null) {
+                result.completeExceptionally(exception);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    private void release(String host) {
+        Host state = hosts.get(host);
+        Runnable next;
+        synchronized (state) {
+            next = state.queued.poll();
+            if (next == null) {
+                state.active--;
+            }
+        }
+        // the slot is handed over to the next queued request
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    private static class Host {
+        private int active;
+        private final Queue<Runnable> queued = new ArrayDeque<>();
+    }
+}
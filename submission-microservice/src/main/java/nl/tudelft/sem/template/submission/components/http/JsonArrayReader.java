@@ -0,0 +1,82 @@
+package nl.tudelft.sem.template.submission.components.http;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Predicate;
+
+/**
+ * Reads elements of a json array one by one, straight from a stream.
+ * <p>
+ * Only the element being visited is kept in memory, and reading can stop before the end of
+ * the array. Closing the reader closes the underlying stream, which for a response body
+ * means the rest of it is not downloaded.
+ * </p>
+ *
+ * @param <T> type of the elements
+ */
+public class JsonArrayReader<T> implements Closeable {
+    private final ObjectMapper objectMapper;
+    private final InputStream inputStream;
+    private final ObjectReader elementReader;
+    private JsonParser parser;
+
+    /**
+     * JsonArrayReader constructor.
+     * Nothing is read from the stream until the elements are visited.
+     *
+     * @param objectMapper object mapper used to read the elements
+     * @param inputStream  stream containing a json array
+     * @param elementType  type of the elements
+     */
+    public JsonArrayReader(ObjectMapper objectMapper, InputStream inputStream, Class<T> elementType) {
+        this.objectMapper = objectMapper;
+        this.inputStream = inputStream;
+        this.elementReader = objectMapper.readerFor(elementType);
+    }
+
+    private JsonParser parser() throws IOException {
+        if (parser == null) {
+            parser = objectMapper.getFactory().createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a json array");
+            }
+        }
+        return parser;
+    }
+
+    /**
+     * Visits the remaining elements in order until the visitor asks to stop.
+     *
+     * @param visitor called with every element, returns false to stop reading
+     * @return true if all elements were visited, false if the visitor stopped early
+     * @throws IOException if the json is malformed or the stream fails
+     */
+    public boolean forEach(Predicate<? super T> visitor) throws IOException {
+        JsonParser parser = parser();
+        JsonToken token = parser.nextToken();
+        while (token != null && token != JsonToken.END_ARRAY) {
+            T element = elementReader.readValue(parser);
+            if (!visitor.test(element)) {
+                return false;
+            }
+            token = parser.nextToken();
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.close();
+        } else {
+            inputStream.close();
+        }
+    }
+}
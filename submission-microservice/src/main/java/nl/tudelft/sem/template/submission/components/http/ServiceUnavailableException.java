@@ -0,0 +1,10 @@
+package nl.tudelft.sem.template.submission.components.http;
+
+/**
+ * Thrown instead of sending a request to a microservice that is currently failing or overloaded.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
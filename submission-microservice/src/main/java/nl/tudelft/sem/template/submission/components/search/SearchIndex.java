@@ -0,0 +1,144 @@
+package nl.tudelft.sem.template.submission.components.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the titles and abstracts of submissions.
+ * <p>
+ * Every term points to the submissions containing it and how often it occurs in them, so a search
+ * only visits the submissions that contain one of the searched terms. Results are ranked with BM25,
+ * and terms of the title count more than terms of the abstract. Submissions are added, replaced
+ * and removed one at a time as they change, searches can run concurrently with each other.
+ * </p>
+ */
+public class SearchIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> lengths = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    /**
+     * Adds a submission to the index, replacing it if it was indexed already.
+     *
+     * @param submissionId id of the submission
+     * @param title        title of the submission
+     * @param abstractText abstract of the submission
+     */
+    public void index(long submissionId, String title, String abstractText) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.terms(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : TextAnalyzer.terms(abstractText)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(submissionId);
+            documents.put(submissionId, frequencies);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(submissionId, entry.getValue());
+                length += entry.getValue();
+            }
+            lengths.put(submissionId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a submission from the index.
+     *
+     * @param submissionId id of the submission
+     */
+    public void remove(long submissionId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(submissionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(long submissionId) {
+        Map<String, Integer> frequencies = documents.remove(submissionId);
+        if (frequencies == null) {
+            return;
+        }
+        for (String term : frequencies.keySet()) {
+            Map<Long, Integer> submissions = postings.get(term);
+            submissions.remove(submissionId);
+            if (submissions.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths.remove(submissionId);
+    }
+
+    /**
+     * Returns the submissions containing any of the terms of a query, the most relevant first.
+     * Submissions that are equally relevant are ordered by id.
+     *
+     * @param query searched text
+     * @return ids of the matching submissions
+     */
+    public List<Long> search(String query) {
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int count = documents.size();
+            double averageLength = count == 0 ? 0 : (double) totalLength / count;
+            for (String term : new LinkedHashSet<>(TextAnalyzer.terms(query))) {
+                Map<Long, Integer> submissions = postings.get(term);
+                if (submissions == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (count - submissions.size() + 0.5) / (submissions.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : submissions.entrySet()) {
+                    int length = lengths.get(entry.getKey());
+                    double frequency = entry.getValue();
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Returns the number of indexed submissions.
+     *
+     * @return number of submissions
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package nl.tudelft.sem.template.submission.components.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into the terms stored in the search index.
+ * Text is split on everything that is not a letter or digit, lower cased, stripped of accents
+ * and common English words, and every word is reduced to its stem, so that for example
+ * "Networks", "networking" and "networked" are the same term.
+ */
+public final class TextAnalyzer {
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by",
+            "for", "from", "has", "in", "is", "it", "its", "of", "on", "or", "that", "the", "this", "to",
+            "was", "we", "were", "which", "with");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Returns the terms of a text in the order they appear in, including repeated terms.
+     *
+     * @param text text to analyze, may be null
+     * @return terms of the text
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        for (String word : normalized.split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Removes the most common English inflections from a word: plurals, past tenses and gerunds.
+     * This is a light stemmer, it does not reduce derived words such as "connection" to "connect".
+     *
+     * @param word lower case word
+     * @return stem of the word
+     */
+    static String stem(String word) {
+        String stem = stripSuffix(word);
+        // "schedule" and "scheduling" have the same stem
+        if (stem.length() > 4 && stem.endsWith("e")) {
+            return stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+
+    private static String stripSuffix(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        if (word.endsWith("ies") || word.endsWith("ied")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("ing") && word.length() > 5) {
+            return undouble(word.substring(0, word.length() - 3));
+        }
+        if (word.endsWith("ed") && word.length() > 4) {
+            return undouble(word.substring(0, word.length() - 2));
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    /**
+     * Turns "runn" (from "running") into "run", but keeps "fall" and "pass".
+     */
+    private static String undouble(String stem) {
+        int length = stem.length();
+        if (length > 2 && stem.charAt(length - 1) == stem.charAt(length - 2)
+                && "lsz".indexOf(stem.charAt(length - 1)) < 0 && Character.isLetter(stem.charAt(length - 1))) {
+            return stem.substring(0, length - 1);
+        }
+        return stem;
+    }
+}
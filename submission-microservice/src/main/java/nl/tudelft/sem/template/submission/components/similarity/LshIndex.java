@@ -0,0 +1,212 @@
+package nl.tudelft.sem.template.submission.components.similarity;
+
+import nl.tudelft.sem.template.model.SimilarSubmission;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locality-sensitive hashing index of the MinHash signatures of papers, one per event.
+ * <p>
+ * A signature is cut into {@link #BANDS} bands of {@link #ROWS} values, and every band puts the paper
+ * in a bucket. Papers sharing a bucket in any band are candidates, and only candidates are compared
+ * by their signatures. Papers with a similarity of 0.5 end up as candidates with a chance of 87%,
+ * papers with a similarity of 0.7 almost always, while unrelated papers hardly ever do,
+ * so a paper is checked against a few candidates instead of every paper of its event.
+ * </p>
+ */
+public class LshIndex {
+    public static final double NEAR_DUPLICATE = 0.5;
+    private static final int BANDS = 32;
+    private static final int ROWS = MinHasher.SIGNATURE_LENGTH / BANDS;
+
+    private final Map<Long, Paper> papers = new HashMap<>();
+    private final Map<Long, List<Map<Integer, Set<Long>>>> events = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static class Paper {
+        private final Long eventId;
+        private final long[] signature;
+
+        Paper(Long eventId, long[] signature) {
+            this.eventId = eventId;
+            this.signature = signature;
+        }
+    }
+
+    private static int bucket(long[] signature, int band) {
+        return Arrays.hashCode(Arrays.copyOfRange(signature, band * ROWS, (band + 1) * ROWS));
+    }
+
+    /**
+     * Adds the paper of a submission to the index of its event, replacing it if it was indexed already.
+     *
+     * @param submissionId id of the submission
+     * @param eventId      event of the submission
+     * @param signature    MinHash signature of the paper
+     */
+    public void add(long submissionId, Long eventId, long[] signature) {
+        lock.writeLock().lock();
+        try {
+            addPaper(submissionId, eventId, signature);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the other papers of an event that are near-duplicates of a paper and adds the paper to the index,
+     * as one step. Of two near-duplicate papers added at the same time, the one added last finds the other.
+     *
+     * @param submissionId id of the submission
+     * @param eventId      event of the submission
+     * @param signature    MinHash signature of the paper
+     * @return submissions with a similarity of at least {@link #NEAR_DUPLICATE}, the most similar first
+     */
+    public List<SimilarSubmission> addAndFindSimilar(long submissionId, Long eventId, long[] signature) {
+        lock.writeLock().lock();
+        try {
+            removePaper(submissionId);
+            List<SimilarSubmission> similar = findSimilar(eventId, signature, submissionId);
+            addPaper(submissionId, eventId, signature);
+            return similar;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addPaper(long submissionId, Long eventId, long[] signature) {
+        removePaper(submissionId);
+        papers.put(submissionId, new Paper(eventId, signature));
+        List<Map<Integer, Set<Long>>> bands = events.computeIfAbsent(eventId, event -> {
+            List<Map<Integer, Set<Long>>> buckets = new ArrayList<>(BANDS);
+            for (int band = 0; band < BANDS; band++) {
+                buckets.add(new HashMap<>());
+            }
+            return buckets;
+        });
+        for (int band = 0; band < BANDS; band++) {
+            bands.get(band).computeIfAbsent(bucket(signature, band), bucket -> new HashSet<>()).add(submissionId);
+        }
+    }
+
+    /**
+     * Moves the paper of a submission to the index of another event.
+     *
+     * @param submissionId id of the submission
+     * @param eventId      new event of the submission
+     */
+    public void changeEvent(long submissionId, Long eventId) {
+        lock.writeLock().lock();
+        try {
+            Paper paper = papers.get(submissionId);
+            if (paper != null && !Objects.equals(paper.eventId, eventId)) {
+                addPaper(submissionId, eventId, paper.signature);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the paper of a submission from the index.
+     *
+     * @param submissionId id of the submission
+     */
+    public void remove(long submissionId) {
+        lock.writeLock().lock();
+        try {
+            removePaper(submissionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePaper(long submissionId) {
+        Paper paper = papers.remove(submissionId);
+        if (paper == null) {
+            return;
+        }
+        List<Map<Integer, Set<Long>>> bands = events.get(paper.eventId);
+        for (int band = 0; band < BANDS; band++) {
+            Map<Integer, Set<Long>> buckets = bands.get(band);
+            int bucket = bucket(paper.signature, band);
+            Set<Long> submissions = buckets.get(bucket);
+            submissions.remove(submissionId);
+            if (submissions.isEmpty()) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+
+    /**
+     * Returns the papers of an event that are near-duplicates of a paper, the most similar first.
+     *
+     * @param eventId   event to search
+     * @param signature MinHash signature of the paper
+     * @return submissions with a similarity of at least {@link #NEAR_DUPLICATE}
+     */
+    public List<SimilarSubmission> findSimilar(Long eventId, long[] signature) {
+        lock.readLock().lock();
+        try {
+            return findSimilar(eventId, signature, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the other papers of the event of a submission that are near-duplicates of its paper,
+     * the most similar first.
+     *
+     * @param submissionId id of the submission
+     * @return submissions with a similarity of at least {@link #NEAR_DUPLICATE}, empty if the submission
+     *         has no indexed paper
+     */
+    public List<SimilarSubmission> findSimilar(long submissionId) {
+        lock.readLock().lock();
+        try {
+            Paper paper = papers.get(submissionId);
+            if (paper == null) {
+                return new ArrayList<>();
+            }
+            return findSimilar(paper.eventId, paper.signature, submissionId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SimilarSubmission> findSimilar(Long eventId, long[] signature, Long excluded) {
+        List<SimilarSubmission> similar = new ArrayList<>();
+        List<Map<Integer, Set<Long>>> bands = events.get(eventId);
+        if (bands == null) {
+            return similar;
+        }
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            candidates.addAll(bands.get(band).getOrDefault(bucket(signature, band), Set.of()));
+        }
+        candidates.remove(excluded);
+        for (Long candidate : candidates) {
+            double similarity = MinHasher.similarity(signature, papers.get(candidate).signature);
+            if (similarity >= NEAR_DUPLICATE) {
+                SimilarSubmission submission = new SimilarSubmission();
+                submission.setSubmissionId(candidate);
+                submission.setSimilarity(similarity);
+                similar.add(submission);
+            }
+        }
+        similar.sort(Comparator.comparing(SimilarSubmission::getSimilarity).reversed()
+                .thenComparing(SimilarSubmission::getSubmissionId));
+        return similar;
+    }
+}
@@ -0,0 +1,117 @@
+package nl.tudelft.sem.template.submission.components.similarity;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Computes MinHash signatures of texts.
+ * <p>
+ * A text is split into shingles, all sequences of {@link #SHINGLE_WORDS} consecutive words.
+ * The share of positions at which the signatures of two texts are equal estimates the Jaccard
+ * similarity of their shingles, so texts can be compared without comparing their words.
+ * Words are compared after lower casing and removing accents and punctuation, so reformatting
+ * a copied text does not change its signature.
+ * </p>
+ */
+public final class MinHasher {
+    public static final int SIGNATURE_LENGTH = 128;
+    private static final int SHINGLE_WORDS = 5;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long[] SEEDS = new SplittableRandom(0x5EED_CAFEL).longs(SIGNATURE_LENGTH).toArray();
+
+    private MinHasher() {
+    }
+
+    /**
+     * Returns the MinHash signature of a text.
+     *
+     * @param text text to sign
+     * @return signature, null if the text has no words
+     */
+    public static long[] signature(String text) {
+        Set<Long> shingles = shingles(text);
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        long[] signature = new long[SIGNATURE_LENGTH];
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            long min = Long.MAX_VALUE;
+            for (long shingle : shingles) {
+                min = Math.min(min, mix(shingle ^ SEEDS[i]));
+            }
+            signature[i] = min;
+        }
+        return signature;
+    }
+
+    /**
+     * Returns the estimated Jaccard similarity of the texts of two signatures.
+     *
+     * @param first  signature of the first text
+     * @param second signature of the second text
+     * @return share of equal positions, from 0 to 1
+     */
+    public static double similarity(long[] first, long[] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    /**
+     * Returns the hashes of the shingles of a text. A text shorter than a shingle is a single shingle.
+     */
+    private static Set<Long> shingles(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = Arrays.stream(normalized.split("[^\\p{L}\\p{Nd}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+        Set<Long> shingles = new HashSet<>();
+        if (words.isEmpty()) {
+            return shingles;
+        }
+        int count = Math.max(1, words.size() - SHINGLE_WORDS + 1);
+        for (int i = 0; i < count; i++) {
+            long hash = FNV_OFFSET;
+            for (int j = i; j < Math.min(i + SHINGLE_WORDS, words.size()); j++) {
+                hash = fnv(hash, words.get(j));
+            }
+            shingles.add(hash);
+        }
+        return shingles;
+    }
+
+    /**
+     * Adds a word and a separator to an FNV-1a hash.
+     */
+    private static long fnv(long hash, String word) {
+        long result = hash;
+        for (int i = 0; i < word.length(); i++) {
+            result = (result ^ word.charAt(i)) * FNV_PRIME;
+        }
+        return (result ^ ' ') * FNV_PRIME;
+    }
+
+    /**
+     * Finalizer of SplitMix64, spreads every bit of the input over the output.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
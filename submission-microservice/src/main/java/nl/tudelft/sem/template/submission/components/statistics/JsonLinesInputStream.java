@@ -0,0 +1,86 @@
+package nl.tudelft.sem.template.submission.components.statistics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Stream of newline-delimited json, one line per element, that loads the elements page by page.
+ * <p>
+ * A page is only loaded and written when the previous one has been read, so a response body
+ * copied from this stream never keeps more than one page in memory. Loading stops at the first
+ * empty page.
+ * </p>
+ *
+ * @param <T> type of the elements
+ */
+public class JsonLinesInputStream<T> extends InputStream {
+    private final ObjectWriter writer;
+    private final Function<T, List<T>> nextPage;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private byte[] page = new byte[0];
+    private int position;
+    private T last;
+    private boolean finished;
+
+    /**
+     * JsonLinesInputStream constructor.
+     * Nothing is loaded until the stream is read.
+     *
+     * @param objectMapper object mapper used to write the elements
+     * @param nextPage     loads the page after the given element, or the first page for null
+     */
+    public JsonLinesInputStream(ObjectMapper objectMapper, Function<T, List<T>> nextPage) {
+        this.writer = objectMapper.writer();
+        this.nextPage = nextPage;
+    }
+
+    private boolean fill() throws IOException {
+        while (position == page.length) {
+            if (finished) {
+                return false;
+            }
+            List<T> elements = nextPage.apply(last);
+            if (elements.isEmpty()) {
+                finished = true;
+                return false;
+            }
+            buffer.reset();
+            for (T element : elements) {
+                writer.writeValue(buffer, element);
+                buffer.write('\n');
+            }
+            page = buffer.toByteArray();
+            position = 0;
+            last = elements.get(elements.size() - 1);
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return page[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, page.length - position);
+        System.arraycopy(page, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+}
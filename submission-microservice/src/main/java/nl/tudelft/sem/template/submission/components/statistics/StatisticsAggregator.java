@@ -0,0 +1,450 @@
+package nl.tudelft.sem.template.submission.components.statistics;
+
+import nl.tudelft.sem.template.model.Statistics;
+import nl.tudelft.sem.template.model.Submission;
+import nl.tudelft.sem.template.model.SubmissionStatus;
+import nl.tudelft.sem.template.submission.components.transaction.TransactionHooks;
+import nl.tudelft.sem.template.submission.models.EventKeywordCount;
+import nl.tudelft.sem.template.submission.models.EventStatistics;
+import nl.tudelft.sem.template.submission.models.KeywordCount;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
+import nl.tudelft.sem.template.submission.models.TrackEvent;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.EventStatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects changes of track statistics in memory and writes them to the database in batches.
+ * <p>
+ * Every track has its own counters, which are {@link LongAdder}s, so concurrent submissions
+ * to the same track neither block each other nor lose updates. A flush drains the counters
+ * of every track and applies them to its statistics in a single read-modify-write.
+ * Keyword counts are stored separately and only the counts of changed keywords are updated.
+ * The statistics and keyword counts of the event of a track are changed by the same amounts.
+ * Changes made while a flush is running are kept for the next one. Changes made in a transaction
+ * are only counted once it commits, so a rolled back submission is never written.
+ * </p>
+ */
+public class StatisticsAggregator {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsAggregator.class);
+
+    private final StatisticsRepository statisticsRepository;
+    private final KeywordCountRepository keywordCountRepository;
+    private final EventStatisticsRepository eventStatisticsRepository;
+    private final EventKeywordCountRepository eventKeywordCountRepository;
+    private final ConcurrentMap<Long, TrackCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * StatisticsAggregator constructor.
+     *
+     * @param statisticsRepository        statistics repository
+     * @param keywordCountRepository      keyword count repository
+     * @param eventStatisticsRepository   event statistics repository
+     * @param eventKeywordCountRepository event keyword count repository
+     */
+    public StatisticsAggregator(StatisticsRepository statisticsRepository,
+                                KeywordCountRepository keywordCountRepository,
+                                EventStatisticsRepository eventStatisticsRepository,
+                                EventKeywordCountRepository eventKeywordCountRepository) {
+        this.statisticsRepository = statisticsRepository;
+        this.keywordCountRepository = keywordCountRepository;
+        this.eventStatisticsRepository = eventStatisticsRepository;
+        this.eventKeywordCountRepository = eventKeywordCountRepository;
+    }
+
+    /**
+     * Counts a new submission once the transaction saving it commits.
+     *
+     * @param submission new submission
+     */
+    public void add(Submission submission) {
+        count(submission, 1L);
+    }
+
+    /**
+     * Removes a deleted submission from the counts once the transaction deleting it commits.
+     *
+     * @param submission deleted submission
+     */
+    public void remove(Submission submission) {
+        count(submission, -1L);
+    }
+
+    /**
+     * Counts the changed authors and keywords of an edited submission once the transaction saving it commits.
+     * The edit is attributed to the track of the old version.
+     *
+     * @param oldSubmission old version of submission
+     * @param newSubmission new version of submission
+     */
+    public void update(Submission oldSubmission, Submission newSubmission) {
+        final Long trackId = oldSubmission.getTrackId();
+        final Long eventId = oldSubmission.getEventId();
+        final long authorsChange = oldSubmission.getAuthors() != null && newSubmission.getAuthors() != null
+                ? authorCount(newSubmission) - authorCount(oldSubmission) : 0L;
+        final List<String> oldKeywords = copyOf(oldSubmission.getKeywords());
+        final List<String> newKeywords = copyOf(newSubmission.getKeywords());
+        TransactionHooks.afterCommit(() -> {
+            TrackCounters track = countersOf(trackId, eventId);
+            track.authors.add(authorsChange);
+            track.countKeywords(oldKeywords, -1L);
+            track.countKeywords(newKeywords, 1L);
+        });
+    }
+
+    /**
+     * Counts a submission as added or removed. What is counted is read right away,
+     * as the submission may still change before the transaction commits.
+     */
+    private void count(Submission submission, long value) {
+        final Long trackId = submission.getTrackId();
+        final Long eventId = submission.getEventId();
+        final SubmissionStatus status = submission.getStatus();
+        final long authors = authorCount(submission);
+        final List<String> keywords = copyOf(submission.getKeywords());
+        TransactionHooks.afterCommit(() -> {
+            TrackCounters track = countersOf(trackId, eventId);
+            track.countPaper(status, value);
+            track.authors.add(value * authors);
+            track.countKeywords(keywords, value);
+        });
+    }
+
+    /**
+     * Writes the changes collected so far to the database.
+     * Changes that cannot be saved are kept for the next flush.
+     */
+    public synchronized void flush() {
+        for (Map.Entry<Long, TrackCounters> entry : counters.entrySet()) {
+            final long trackId = entry.getKey();
+            final TrackCounters track = entry.getValue();
+            Changes changes = track.drain();
+            if (changes.hasCountChanges()) {
+                saveCounts(trackId, track, changes);
+            }
+            if (!changes.keywords.isEmpty()) {
+                saveKeywords(trackId, track, changes.keywords);
+            }
+        }
+    }
+
+    private void saveCounts(long trackId, TrackCounters track, Changes changes) {
+        long authorsChange;
+        try {
+            Statistics statistics = statisticsRepository.findById(trackId).orElseGet(() -> {
+                Statistics created = new Statistics();
+                created.setId(trackId);
+                created.setTotalSubmissions(0L);
+                return created;
+            });
+            long oldAuthors = statistics.getAverageNumberOfAuthors() * statistics.getTotalSubmissions();
+            apply(statistics, changes);
+            statisticsRepository.save(statistics);
+            authorsChange = statistics.getAverageNumberOfAuthors() * statistics.getTotalSubmissions() - oldAuthors;
+        } catch (RuntimeException e) {
+            logger.warn("Could not save statistics of track {}, retrying with the next flush", trackId, e);
+            track.restoreCounts(changes);
+            return;
+        }
+
+        Long eventId = track.eventId;
+        if (eventId == null) {
+            return;
+        }
+        try {
+            EventStatistics event = eventStatisticsRepository.findById(eventId)
+                    .orElseGet(() -> new EventStatistics(eventId));
+            event.setTotalSubmissions(event.getTotalSubmissions() + changes.total);
+            event.setOpen(event.getOpen() + changes.open);
+            event.setAccepted(event.getAccepted() + changes.accepted);
+            event.setRejected(event.getRejected() + changes.rejected);
+            event.setUnderReview(event.getUnderReview() + changes.underReview);
+            event.setTotalAuthors(event.getTotalAuthors() + authorsChange);
+            eventStatisticsRepository.save(event);
+        } catch (RuntimeException e) {
+            // the track is saved already, so the event is repaired by the next consistency check
+            logger.warn("Could not update statistics of event {} with track {}", eventId, trackId, e);
+        }
+    }
+
+    /**
+     * Recomputes the statistics and keyword counts of every event from those of its tracks
+     * and repairs the stored ones that differ, e.g. because an update of them failed.
+     *
+     * @param trackEvents event of every track with submissions
+     * @return number of events whose statistics were repaired
+     */
+    public synchronized int checkEventStatistics(List<TrackEvent> trackEvents) {
+        Map<Long, Long> eventOfTrack = new HashMap<>();
+        for (TrackEvent trackEvent : trackEvents) {
+            eventOfTrack.put(trackEvent.getTrackId(), trackEvent.getEventId());
+        }
+        Map<Long, EventStatistics> expected = new HashMap<>();
+        for (Statistics statistics : statisticsRepository.findAllById(eventOfTrack.keySet())) {
+            long eventId = eventOfTrack.get(statistics.getId());
+            EventStatistics event = expected.computeIfAbsent(eventId, EventStatistics::new);
+            event.setTotalSubmissions(event.getTotalSubmissions() + statistics.getTotalSubmissions());
+            event.setOpen(event.getOpen() + statistics.getOpen());
+            event.setAccepted(event.getAccepted() + statistics.getAccepted());
+            event.setRejected(event.getRejected() + statistics.getRejected());
+            event.setUnderReview(event.getUnderReview() + statistics.getUnderReview());
+            event.setTotalAuthors(event.getTotalAuthors()
+                    + statistics.getAverageNumberOfAuthors() * statistics.getTotalSubmissions());
+        }
+
+        Set<Long> events = new HashSet<>(eventOfTrack.values());
+        Set<Long> repaired = new HashSet<>();
+        for (EventStatistics stored : eventStatisticsRepository.findAll()) {
+            events.add(stored.getEventId());
+            EventStatistics recomputed = expected.remove(stored.getEventId());
+            if (recomputed == null) {
+                // no submissions are left in the event
+                recomputed = new EventStatistics(stored.getEventId());
+            }
+            if (!recomputed.equals(stored)) {
+                logger.warn("Statistics of event {} were {}, repaired to {}", stored.getEventId(), stored, recomputed);
+                eventStatisticsRepository.save(recomputed);
+                repaired.add(stored.getEventId());
+            }
+        }
+        for (EventStatistics missing : expected.values()) {
+            logger.warn("Statistics of event {} were missing, repaired to {}", missing.getEventId(), missing);
+            eventStatisticsRepository.save(missing);
+            repaired.add(missing.getEventId());
+        }
+        for (long eventId : events) {
+            if (checkEventKeywords(eventId)) {
+                repaired.add(eventId);
+            }
+        }
+        return repaired.size();
+    }
+
+    /**
+     * Adds up the keyword counts of the tracks of an event and repairs the stored counts of the event that differ.
+     *
+     * @param eventId id of an event
+     * @return true if a count was repaired
+     */
+    private boolean checkEventKeywords(long eventId) {
+        Map<String, Long> expected = new HashMap<>();
+        for (KeywordTotal total : keywordCountRepository.sumByEventId(eventId)) {
+            expected.put(total.getKeyword(), total.getOccurrences());
+        }
+        boolean repaired = false;
+        for (EventKeywordCount stored : eventKeywordCountRepository.findByEventId(eventId)) {
+            Long occurrences = expected.remove(stored.getKeyword());
+            if (occurrences == null) {
+                // rows of unused keywords are left behind when removing them failed, they are not shown
+                if (stored.getOccurrences() > 0) {
+                    logger.warn("Keyword {} of event {} was counted {} times, removed", stored.getKeyword(), eventId,
+                            stored.getOccurrences());
+                    repaired = true;
+                }
+                eventKeywordCountRepository.delete(stored);
+            } else if (occurrences != stored.getOccurrences()) {
+                logger.warn("Keyword {} of event {} was counted {} times, repaired to {}", stored.getKeyword(),
+                        eventId, stored.getOccurrences(), occurrences);
+                stored.setOccurrences(occurrences);
+                eventKeywordCountRepository.save(stored);
+                repaired = true;
+            }
+        }
+        for (Map.Entry<String, Long> missing : expected.entrySet()) {
+            logger.warn("Keyword {} of event {} was not counted, repaired to {}", missing.getKey(), eventId,
+                    missing.getValue());
+            eventKeywordCountRepository.save(new EventKeywordCount(eventId, missing.getKey(), missing.getValue()));
+            repaired = true;
+        }
+        return repaired;
+    }
+
+    /**
+     * Adds the changes to the stored count of every changed keyword, in the track and in its event.
+     * Keywords that no submission of the track or event has anymore are removed.
+     */
+    private void saveKeywords(long trackId, TrackCounters track, Map<String, Long> keywords) {
+        final Long eventId = track.eventId;
+        boolean decreased = false;
+        for (Map.Entry<String, Long> keyword : keywords.entrySet()) {
+            long change = keyword.getValue();
+            try {
+                if (keywordCountRepository.increment(trackId, keyword.getKey(), change) == 0 && change > 0) {
+                    keywordCountRepository.save(new KeywordCount(trackId, keyword.getKey(), eventId, change));
+                }
+                decreased |= change < 0;
+            } catch (RuntimeException e) {
+                logger.warn("Could not save count of keyword {} in track {}, retrying with the next flush",
+                        keyword.getKey(), trackId, e);
+                track.countKeyword(keyword.getKey(), change);
+                continue;
+            }
+            if (eventId != null) {
+                saveEventKeyword(eventId, keyword.getKey(), change);
+            }
+        }
+        if (decreased) {
+            try {
+                keywordCountRepository.deleteUnused(trackId);
+                if (eventId != null) {
+                    eventKeywordCountRepository.deleteUnused(eventId);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not remove unused keywords of track {}", trackId, e);
+            }
+        }
+    }
+
+    private void saveEventKeyword(long eventId, String keyword, long change) {
+        try {
+            if (eventKeywordCountRepository.increment(eventId, keyword, change) == 0 && change > 0) {
+                eventKeywordCountRepository.save(new EventKeywordCount(eventId, keyword, change));
+            }
+        } catch (RuntimeException e) {
+            // the track is saved already, so the event is repaired by the next consistency check
+            logger.warn("Could not update count of keyword {} in event {}", keyword, eventId, e);
+        }
+    }
+
+    /**
+     * Returns whether there are changes that are not written to the database yet.
+     *
+     * @return true if a flush would save statistics
+     */
+    public boolean hasPendingChanges() {
+        return counters.values().stream().anyMatch(TrackCounters::hasChanges);
+    }
+
+    private TrackCounters countersOf(Long trackId, Long eventId) {
+        TrackCounters track = counters.computeIfAbsent(trackId, id -> new TrackCounters());
+        if (eventId != null) {
+            track.eventId = eventId;
+        }
+        return track;
+    }
+
+    private static List<String> copyOf(List<String> keywords) {
+        return keywords == null ? null : new ArrayList<>(keywords);
+    }
+
+    private static void apply(Statistics statistics, Changes changes) {
+        long oldTotal = statistics.getTotalSubmissions();
+        long totalAuthors = statistics.getAverageNumberOfAuthors() * oldTotal + changes.authors;
+        long total = oldTotal + changes.total;
+        statistics.setTotalSubmissions(total);
+        statistics.setAverageNumberOfAuthors(total == 0 ? 0L : totalAuthors / total);
+        statistics.setOpen(statistics.getOpen() + changes.open);
+        statistics.setAccepted(statistics.getAccepted() + changes.accepted);
+        statistics.setRejected(statistics.getRejected() + changes.rejected);
+        statistics.setUnderReview(statistics.getUnderReview() + changes.underReview);
+        // keyword counts are stored on their own, they are only added to statistics when these are read
+        statistics.setKeywordsCounts(null);
+    }
+
+    private static long authorCount(Submission submission) {
+        return submission.getAuthors() == null ? 0L : submission.getAuthors().size();
+    }
+
+    /**
+     * Counters of changes of a single track since the last flush.
+     */
+    private static final class TrackCounters {
+        private volatile Long eventId;
+        private final LongAdder total = new LongAdder();
+        private final LongAdder open = new LongAdder();
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder underReview = new LongAdder();
+        private final LongAdder authors = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> keywords = new ConcurrentHashMap<>();
+
+        private void countPaper(SubmissionStatus status, long value) {
+            total.add(value);
+            if (status == null) {
+                return;
+            }
+            switch (status) {
+                case ACCEPTED -> accepted.add(value);
+                case OPEN -> open.add(value);
+                case REJECTED -> rejected.add(value);
+                default -> underReview.add(value);
+            }
+        }
+
+        private void countKeywords(List<String> submissionKeywords, long value) {
+            if (submissionKeywords == null) {
+                return;
+            }
+            for (String keyword : submissionKeywords) {
+                countKeyword(keyword, value);
+            }
+        }
+
+        private void countKeyword(String keyword, long value) {
+            keywords.computeIfAbsent(keyword, k -> new LongAdder()).add(value);
+        }
+
+        private boolean hasChanges() {
+            return total.sum() != 0 || authors.sum() != 0
+                    || keywords.values().stream().anyMatch(count -> count.sum() != 0);
+        }
+
+        /**
+         * Takes the changes counted so far and resets the counters.
+         * Additions racing with this are either taken now or left for the next drain, never lost.
+         */
+        private Changes drain() {
+            Changes changes = new Changes();
+            changes.total = total.sumThenReset();
+            changes.open = open.sumThenReset();
+            changes.accepted = accepted.sumThenReset();
+            changes.rejected = rejected.sumThenReset();
+            changes.underReview = underReview.sumThenReset();
+            changes.authors = authors.sumThenReset();
+            keywords.forEach((keyword, count) -> {
+                long value = count.sumThenReset();
+                if (value != 0) {
+                    changes.keywords.put(keyword, value);
+                }
+            });
+            return changes;
+        }
+
+        private void restoreCounts(Changes changes) {
+            total.add(changes.total);
+            open.add(changes.open);
+            accepted.add(changes.accepted);
+            rejected.add(changes.rejected);
+            underReview.add(changes.underReview);
+            authors.add(changes.authors);
+        }
+    }
+
+    private static final class Changes {
+        private long total;
+        private long open;
+        private long accepted;
+        private long rejected;
+        private long underReview;
+        private long authors;
+        private final Map<String, Long> keywords = new HashMap<>();
+
+        private boolean hasCountChanges() {
+            return total != 0 || open != 0 || accepted != 0 || rejected != 0 || underReview != 0
+                    || authors != 0;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package nl.tudelft.sem.template.submission.components.strategy;
 
 import javassist.NotFoundException;
+import nl.tudelft.sem.template.model.SimilarSubmission;
 import nl.tudelft.sem.template.model.Statistics;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.model.Track;
 import nl.tudelft.sem.template.submission.components.chain.DeadlinePassedException;
 
+import java.util.List;
+
 public interface GeneralStrategy {
     /**
      * Checks deadline for a role.
@@ -59,10 +62,23 @@ public interface GeneralStrategy {
      * Type of statistics is dependent on type of chair.
      *
      * @param track track id
+     * @param topK  number of most frequent keywords to return, null to return all keywords
      * @return statistics
      * @throws NotFoundException if no statistics was found for a track
      */
-    default Statistics getStatistics(Track track) throws NotFoundException, IllegalAccessException {
+    default Statistics getStatistics(Track track, Integer topK) throws NotFoundException, IllegalAccessException {
         throw new IllegalAccessException("User has not enough permissions to get statistics.");
     }
+
+    /**
+     * Returns the near-duplicates of a paper if user is a chair.
+     *
+     * @param similar submissions with a near-duplicate paper
+     * @return submissions with a near-duplicate paper
+     * @throws IllegalAccessException if user is not a chair
+     */
+    default List<SimilarSubmission> getSimilarSubmissions(List<SimilarSubmission> similar)
+            throws IllegalAccessException {
+        throw new IllegalAccessException("User has not enough permissions to see similar submissions.");
+    }
 }
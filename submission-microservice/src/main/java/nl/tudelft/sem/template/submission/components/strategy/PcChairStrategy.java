@@ -1,34 +1,43 @@
 package nl.tudelft.sem.template.submission.components.strategy;
 
 import javassist.NotFoundException;
+import nl.tudelft.sem.template.model.SimilarSubmission;
 import nl.tudelft.sem.template.model.Statistics;
 import nl.tudelft.sem.template.model.Track;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
 import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
+import nl.tudelft.sem.template.submission.services.StatisticsServiceUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Optional;
 
 @Component
 public class PcChairStrategy implements GeneralStrategy {
     private final StatisticsRepository statisticsRepository;
+    private final KeywordCountRepository keywordCountRepository;
 
     /**
      * TrackStrategy constructor.
      *
-     * @param statisticsRepository statistics repository.
+     * @param statisticsRepository   statistics repository.
+     * @param keywordCountRepository keyword count repository.
      */
-    public PcChairStrategy(StatisticsRepository statisticsRepository) {
+    public PcChairStrategy(StatisticsRepository statisticsRepository,
+                           KeywordCountRepository keywordCountRepository) {
         this.statisticsRepository = statisticsRepository;
+        this.keywordCountRepository = keywordCountRepository;
     }
 
     /**
      * Returns statistics for a given track.
      *
      * @param track track
+     * @param topK  number of most frequent keywords to return, null to return all keywords
      * @return statistics
      * @throws NotFoundException if statistics for a given track does not exist
      */
-    public Statistics getStatistics(Track track) throws NotFoundException {
+    public Statistics getStatistics(Track track, Integer topK) throws NotFoundException {
         long id = track.getId();
         Optional<Statistics> optional = statisticsRepository.findById(id);
 
@@ -36,6 +45,12 @@ public class PcChairStrategy implements GeneralStrategy {
             throw new NotFoundException("Not Found - Statistics for a given track ID does not exist.");
         }
 
-        return optional.get();
+        return StatisticsServiceUtils.withKeywordsCounts(optional.get(), StatisticsServiceUtils.toKeywordsCounts(
+                keywordCountRepository.topByTrackId(id, StatisticsServiceUtils.keywordsPage(topK))));
+    }
+
+    @Override
+    public List<SimilarSubmission> getSimilarSubmissions(List<SimilarSubmission> similar) {
+        return similar;
     }
 }
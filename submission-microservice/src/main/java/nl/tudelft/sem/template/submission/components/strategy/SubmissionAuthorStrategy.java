@@ -4,6 +4,7 @@ import nl.tudelft.sem.template.model.Comment;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.model.SubmissionStatus;
 import nl.tudelft.sem.template.model.Track;
+import nl.tudelft.sem.template.submission.components.http.ServiceUnavailableException;
 import nl.tudelft.sem.template.submission.models.RequestType;
 import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
 import nl.tudelft.sem.template.submission.services.HttpRequestService;
@@ -45,8 +46,14 @@ public class SubmissionAuthorStrategy implements GeneralStrategy {
     public Submission getSubmission(Submission submission) {
         // need to change submission id to long !!!
         if (!submission.getStatus().equals(SubmissionStatus.OPEN)) {
-            List<Comment> comments = httpRequestService.getList("comments/" + userId + "/papers/" + submission.getId(),
-                    Comment[].class, RequestType.REVIEW);
+            List<Comment> comments;
+            try {
+                comments = httpRequestService.getList("comments/" + userId + "/papers/" + submission.getId(),
+                        Comment[].class, RequestType.REVIEW);
+            } catch (ServiceUnavailableException e) {
+                // the submission is still returned while the review microservice is down, just without comments
+                return submission;
+            }
             List<String> commentsContent = new ArrayList<>();
             for (Comment comment : comments) {
                 commentsContent.add(comment.getDescription());
@@ -0,0 +1,32 @@
+package nl.tudelft.sem.template.submission.components.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers changes of in-memory state, such as counters and indexes, until the database changes
+ * they mirror are committed, so a rolled back transaction leaves no trace in memory either.
+ */
+public final class TransactionHooks {
+    private TransactionHooks() {
+    }
+
+    /**
+     * Runs an action once the current transaction commits, or right away if there is no transaction.
+     * The action is dropped if the transaction rolls back.
+     *
+     * @param action action to run
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,12 +1,13 @@
 package nl.tudelft.sem.template.submission.configs;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.Getter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
@@ -28,19 +29,36 @@ public class H2Config {
     }
 
     /**
-     * Set up the connection to the database.
+     * Set up the pool of connections to the database.
+     * <p>
+     * Connections are reused between transactions instead of being opened for every one of them.
+     * Statistics of the pool (active, idle and waiting connections) can be exposed over JMX with
+     * jdbc.pool.metrics-enabled. This is off by default, as the pool name is fixed and a second
+     * application context in the same JVM, e.g. in tests, would fail to register it again.
+     * </p>
      *
      * @return The data source.
      */
-    @Bean
+    @Bean(destroyMethod = "close")
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(environment.getProperty("jdbc.driverClassName"));
-        dataSource.setUrl(environment.getProperty("jdbc.url"));
-        dataSource.setUsername(environment.getProperty("jdbc.user"));
-        dataSource.setPassword(environment.getProperty("jdbc.pass"));
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(environment.getProperty("jdbc.driverClassName"));
+        config.setJdbcUrl(environment.getProperty("jdbc.url"));
+        config.setUsername(environment.getProperty("jdbc.user"));
+        config.setPassword(environment.getProperty("jdbc.pass"));
 
-        return dataSource;
+        config.setPoolName(environment.getProperty("jdbc.pool.name", "submission-pool"));
+        config.setMinimumIdle(environment.getProperty("jdbc.pool.minimum-idle", Integer.class, 2));
+        config.setMaximumPoolSize(environment.getProperty("jdbc.pool.maximum-size", Integer.class, 10));
+        config.setConnectionTimeout(environment.getProperty("jdbc.pool.connection-timeout-ms", Long.class, 5_000L));
+        config.setLeakDetectionThreshold(environment.getProperty("jdbc.pool.leak-detection-threshold-ms",
+                Long.class, 30_000L));
+        // H2 caches parsed statements per connection, which pays off now that connections are reused
+        config.addDataSourceProperty("QUERY_CACHE_SIZE",
+                environment.getProperty("jdbc.pool.statement-cache-size", Integer.class, 64));
+        config.setRegisterMbeans(environment.getProperty("jdbc.pool.metrics-enabled", Boolean.class, false));
+
+        return new HikariDataSource(config);
     }
 
 }
@@ -0,0 +1,70 @@
+package nl.tudelft.sem.template.submission.configs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings of the http client used for requests to other microservices.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "outbound.http")
+public class HttpClientProperties {
+    /**
+     * Maximum time for establishing a connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum time for a single request, from sending it until the response headers arrive.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Number of threads handling asynchronous requests and their responses.
+     */
+    private int executorThreads = 8;
+
+    /**
+     * Maximum number of tasks waiting for a thread handling asynchronous requests. Further tasks are rejected.
+     */
+    private int executorQueueSize = 256;
+
+    /**
+     * Whether HTTP/2 is preferred, so that concurrent requests to a host share one connection.
+     * Falls back to HTTP/1.1 with keep-alive if the other side does not support it.
+     */
+    private boolean preferHttp2 = true;
+
+    /**
+     * Maximum number of requests running at the same time against a single microservice.
+     * Further requests wait in a queue without blocking a thread.
+     */
+    private int maxRequestsPerHost = 16;
+
+    /**
+     * Maximum number of requests waiting for a single microservice. Further requests fail right away.
+     */
+    private int maxQueuedRequestsPerHost = 64;
+
+    /**
+     * Maximum time a request waits for a free slot of its microservice. The request timeout only starts once
+     * the request is sent, so a caller waits at most this long plus the request timeout for a response.
+     */
+    private Duration queueTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Number of consecutive failures after which requests to a microservice are stopped.
+     */
+    private int circuitBreakerFailureThreshold = 5;
+
+    /**
+     * How long requests to a failing microservice are stopped before a single probe request is let through.
+     */
+    private Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+}
@@ -1,13 +1,19 @@
 package nl.tudelft.sem.template.submission.controllers;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import javassist.NotFoundException;
 import nl.tudelft.sem.template.api.StatsApi;
 import nl.tudelft.sem.template.model.Statistics;
 import nl.tudelft.sem.template.submission.components.chain.DeadlinePassedException;
-import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
+import nl.tudelft.sem.template.submission.components.http.ServiceUnavailableException;
+import nl.tudelft.sem.template.submission.components.statistics.JsonLinesInputStream;
 import nl.tudelft.sem.template.submission.services.StatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,26 +23,52 @@ import java.util.Optional;
 
 @RestController
 public class StatsController implements StatsApi {
-    private final StatisticsRepository statisticsRepository;
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final String NEXT_CURSOR = "Next-Cursor";
+    private static final MediaType JSON_LINES = MediaType.parseMediaType("application/x-ndjson");
+
     private final StatisticsService statisticsService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Autowired
-    public StatsController(StatisticsService statisticsService,
-                           StatisticsRepository statisticsRepository) {
+    public StatsController(StatisticsService statisticsService) {
         this.statisticsService = statisticsService;
-        this.statisticsRepository = statisticsRepository;
     }
 
     @Override
-    public ResponseEntity<List<Statistics>> statsGet() {
-        return ResponseEntity.of(Optional.of(statisticsRepository.findAll()));
+    public ResponseEntity<List<Statistics>> statsGet(Integer limit, Long cursor) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.of(Optional.of(statisticsService.getAllStatistics()));
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Statistics> page = statisticsService.getStatisticsPage(cursor, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    @Override
+    public ResponseEntity<Resource> statsStreamGet() {
+        JsonLinesInputStream<Statistics> lines = new JsonLinesInputStream<>(objectMapper,
+                last -> statisticsService.getStatisticsPage(last == null ? null : last.getId(), MAX_PAGE_SIZE));
+        return ResponseEntity.ok().contentType(JSON_LINES).body(new InputStreamResource(lines));
     }
 
 
     @Override
-    public ResponseEntity<Statistics> trackOrEventStatisticsGet(Long trackId) {
+    public ResponseEntity<Statistics> trackOrEventStatisticsGet(Long trackId, Integer topK) {
+        if (topK != null && topK < 1) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            Statistics output = statisticsService.getStatistics(trackId);
+            Statistics output = statisticsService.getStatistics(trackId, topK);
             return ResponseEntity.of(Optional.of(output));
         } catch (Exception e) {
             return handleException(e);
@@ -48,6 +80,8 @@ public class StatsController implements StatsApi {
             return ResponseEntity.status(401).build();
         } else if (e instanceof NotFoundException) {
             return ResponseEntity.status(404).build();
+        } else if (e instanceof ServiceUnavailableException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } else if (e instanceof DeadlinePassedException) {
             return ResponseEntity.badRequest().build();
         } else {
@@ -4,9 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import javassist.NotFoundException;
 import nl.tudelft.sem.template.api.SubmissionApi;
 import nl.tudelft.sem.template.model.PaperType;
+import nl.tudelft.sem.template.model.SimilarSubmission;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.submission.components.chain.DeadlinePassedException;
 import nl.tudelft.sem.template.submission.components.chain.DuplicateSubmissionException;
+import nl.tudelft.sem.template.submission.components.http.ServiceUnavailableException;
 import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
 import nl.tudelft.sem.template.submission.services.SubmissionService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -69,6 +71,8 @@ public class SubmissionController implements SubmissionApi {
             return ResponseEntity.badRequest().build();
         } catch (IllegalAccessException e) {
             return ResponseEntity.status(401).build();
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -113,6 +117,8 @@ public class SubmissionController implements SubmissionApi {
             return ResponseEntity.status(404).build();
         } catch (DeadlinePassedException e) {
             return ResponseEntity.badRequest().build();
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -130,6 +136,8 @@ public class SubmissionController implements SubmissionApi {
             return submissionService.getById(submissionId);
         } catch (IllegalAccessException e) {
             return ResponseEntity.status(401).build();
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -145,15 +153,44 @@ public class SubmissionController implements SubmissionApi {
      * @param trackId     Filter by track id (optional)
      * @param eventId     Filter by event id (optional)
      * @param type        Filter by submission type (optional)
+     * @param sort        Order of the submissions (optional)
+     * @param limit       Maximum number of submissions to return (optional)
+     * @param cursor      Cursor returned with the previous page (optional)
+     * @param q           Words to search for in the titles and abstracts (optional)
      * @return list of submissions. All submissions are returned if no criteria specified.
      */
     @Override
     public ResponseEntity<List<Submission>> submissionGet(Long submittedBy, List<Long> authors,
                                                           String title, List<String> keywords, Long trackId,
-                                                          Long eventId, PaperType type) {
+                                                          Long eventId, PaperType type,
+                                                          String sort, Integer limit, String cursor, String q) {
+        try {
+            return submissionService.get(submittedBy, authors, title,
+                    keywords, trackId, eventId, type, sort, limit, cursor, q);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
-        return submissionService.get(submittedBy, authors, title,
-                keywords, trackId, eventId, type);
+    /**
+     * Returns the submissions of the same event with a near-duplicate paper.
+     *
+     * @param submissionId Submission id (required)
+     * @return submissions with a near-duplicate paper, the most similar first
+     */
+    @Override
+    public ResponseEntity<List<SimilarSubmission>> getSimilarSubmissions(Long submissionId) {
+        try {
+            return submissionService.getSimilar(submissionId);
+        } catch (IllegalAccessException e) {
+            return ResponseEntity.status(401).build();
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(404).build();
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -176,6 +213,8 @@ public class SubmissionController implements SubmissionApi {
             return ResponseEntity.badRequest().build();
         } catch (DuplicateSubmissionException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -0,0 +1,49 @@
+package nl.tudelft.sem.template.submission.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Number of submissions in an event that have a keyword, the counts of the tracks of the event added up.
+ * Kept up to date together with the counts of the tracks, so that the most frequent keywords of an event
+ * are read from the index on the counts instead of adding up and sorting all keywords of its tracks.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "eventId, occurrences DESC, keyword"))
+@IdClass(EventKeywordCount.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventKeywordCount {
+    @Id
+    private long eventId;
+    @Id
+    private String keyword;
+    private long occurrences;
+
+    /**
+     * Primary key of an event keyword count.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private long eventId;
+        private String keyword;
+    }
+}
@@ -0,0 +1,38 @@
+package nl.tudelft.sem.template.submission.models;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Statistics of all tracks of an event added up.
+ * Kept up to date together with the statistics of the tracks, so that they do not have to be added up on every read.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class EventStatistics {
+    @Id
+    private long eventId;
+    private long totalSubmissions;
+    private long open;
+    private long accepted;
+    private long rejected;
+    private long underReview;
+    /**
+     * Sum over the tracks of their average number of authors times their number of submissions.
+     */
+    private long totalAuthors;
+
+    public EventStatistics(long eventId) {
+        this.eventId = eventId;
+    }
+}
@@ -0,0 +1,49 @@
+package nl.tudelft.sem.template.submission.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Number of submissions in a track that have a keyword.
+ * Every keyword of a track is a separate row, so a submission only changes the rows of its own keywords.
+ */
+@Entity
+@Table(indexes = {@Index(columnList = "eventId"), @Index(columnList = "trackId, occurrences DESC, keyword")})
+@IdClass(KeywordCount.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordCount {
+    @Id
+    private long trackId;
+    @Id
+    private String keyword;
+    private Long eventId;
+    private long occurrences;
+
+    /**
+     * Primary key of a keyword count.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private long trackId;
+        private String keyword;
+    }
+}
@@ -0,0 +1,18 @@
+package nl.tudelft.sem.template.submission.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Number of submissions with a keyword, added up over one or more tracks.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class KeywordTotal {
+    private final String keyword;
+    private final long occurrences;
+}
@@ -0,0 +1,57 @@
+package nl.tudelft.sem.template.submission.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in ranked search results, the number of results on the previous pages.
+ * Results have no stable sort key, as their rank depends on all indexed submissions, so pages are counted instead.
+ * Clients get it as an opaque string.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class SearchCursor {
+    private static final String PREFIX = "rank:";
+
+    private final int offset;
+
+    /**
+     * Returns the string given to clients.
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        String value = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a cursor given by a client.
+     *
+     * @param cursor encoded cursor
+     * @return cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static SearchCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Cursor '" + cursor + "' is not a cursor of search results");
+            }
+            int offset = Integer.parseInt(value.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Malformed cursor '" + cursor + "'");
+            }
+            return new SearchCursor(offset);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor '" + cursor + "'", e);
+        }
+    }
+}
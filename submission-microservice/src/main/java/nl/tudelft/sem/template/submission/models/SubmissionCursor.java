@@ -0,0 +1,60 @@
+package nl.tudelft.sem.template.submission.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a list of submissions, the last submission of a page.
+ * The next page starts after the submission with this sort key, the id breaks ties between equal creation dates.
+ * Clients get it as an opaque string.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class SubmissionCursor {
+    private final long id;
+    private final LocalDateTime created;
+
+    public static SubmissionCursor after(SubmissionRow submission) {
+        return new SubmissionCursor(submission.getId(), submission.getCreated());
+    }
+
+    /**
+     * Returns the string given to clients.
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        String value = created == null ? String.valueOf(id) : id + "," + created;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a cursor given by a client.
+     *
+     * @param cursor encoded cursor
+     * @return cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static SubmissionCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(',');
+            if (separator < 0) {
+                return new SubmissionCursor(Long.parseLong(value), null);
+            }
+            return new SubmissionCursor(Long.parseLong(value.substring(0, separator)),
+                    LocalDateTime.parse(value.substring(separator + 1)));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor '" + cursor + "'", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package nl.tudelft.sem.template.submission.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import nl.tudelft.sem.template.model.PaperType;
+import nl.tudelft.sem.template.model.Submission;
+import nl.tudelft.sem.template.model.SubmissionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Columns of a submission, read without loading the submission into the persistence context.
+ * Submissions built from it are plain objects, so changing them never changes the database.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class SubmissionRow {
+    private final Long id;
+    private final Long submittedBy;
+    private final String title;
+    private final String textFilePath;
+    private final String abstractText;
+    private final String link;
+    private final Long trackId;
+    private final Long eventId;
+    private final PaperType type;
+    private final SubmissionStatus status;
+    private final LocalDateTime created;
+    private final LocalDateTime updated;
+
+    /**
+     * Returns a new submission with the columns of this row and no authors, keywords or comments.
+     *
+     * @return submission
+     */
+    public Submission toSubmission() {
+        Submission submission = new Submission(id, submittedBy, new ArrayList<>(), title, abstractText,
+                trackId, eventId, type, status, updated, created);
+        submission.setTextFilePath(textFilePath);
+        submission.setLink(link);
+        return submission;
+    }
+}
@@ -0,0 +1,42 @@
+package nl.tudelft.sem.template.submission.models;
+
+public enum SubmissionSort {
+    ID("id"),
+    ID_DESC("-id"),
+    CREATED("created"),
+    CREATED_DESC("-created");
+
+    private final String value;
+
+    SubmissionSort(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the sort order with the given value.
+     *
+     * @param value value of the sort parameter, null for the default order
+     * @return sort order
+     * @throws IllegalArgumentException if there is no sort order with the given value
+     */
+    public static SubmissionSort fromValue(String value) {
+        if (value == null) {
+            return ID;
+        }
+        for (SubmissionSort sort : values()) {
+            if (sort.value.equals(value)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unexpected sort order '" + value + "'");
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
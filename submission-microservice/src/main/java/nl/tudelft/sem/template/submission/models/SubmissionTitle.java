@@ -0,0 +1,54 @@
+package nl.tudelft.sem.template.submission.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import nl.tudelft.sem.template.model.Submission;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalized title of a submission, unique within its event.
+ * Titles that only differ in case or whitespace are the same title, so a duplicate is found with one index lookup.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"eventId", "normalizedTitle"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class SubmissionTitle {
+    @Id
+    private long submissionId;
+    private Long eventId;
+    private String normalizedTitle;
+
+    public static SubmissionTitle of(Submission submission) {
+        return new SubmissionTitle(submission.getId(), submission.getEventId(), normalize(submission.getTitle()));
+    }
+
+    /**
+     * Returns the title compared when looking for duplicates: lower case, with all runs of whitespace
+     * replaced by a single space and compatibility characters (such as ligatures) replaced.
+     *
+     * @param title title of a submission
+     * @return normalized title, empty if there is no title
+     */
+    public static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(title, Normalizer.Form.NFKC);
+        return normalized.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,55 @@
+package nl.tudelft.sem.template.submission.repositories;
+
+import nl.tudelft.sem.template.submission.models.EventKeywordCount;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+public interface EventKeywordCountRepository extends JpaRepository<EventKeywordCount, EventKeywordCount.Key> {
+    @Transactional
+    @Modifying
+    @Query("update EventKeywordCount k set k.occurrences = k.occurrences + ?3 where k.eventId = ?1 and k.keyword = ?2")
+    int increment(long eventId, String keyword, long change);
+
+    @Transactional
+    @Modifying
+    @Query("delete from EventKeywordCount k where k.eventId = ?1 and k.occurrences <= 0")
+    int deleteUnused(long eventId);
+
+    List<EventKeywordCount> findByEventId(long eventId);
+
+    /**
+     * Returns the keywords of an event, most frequent first. The rows are read in the order of the index
+     * on the counts of the event, so a page of the top keywords reads only that many rows.
+     *
+     * @param eventId  id of an event
+     * @param pageable page of keywords to return
+     * @return counts of the keywords
+     * @see KeywordCountRepository#findMostFrequentByTrackId(long, Pageable)
+     */
+    @Query("select k from EventKeywordCount k where k.eventId = ?1 order by k.eventId, k.occurrences desc, k.keyword")
+    List<EventKeywordCount> findMostFrequentByEventId(long eventId, Pageable pageable);
+
+    /**
+     * Returns the number of submissions per used keyword of an event, most frequent keywords first.
+     *
+     * @param eventId  id of an event
+     * @param pageable page of keywords to return
+     * @return keywords with their counts
+     */
+    default List<KeywordTotal> topByEventId(long eventId, Pageable pageable) {
+        // keywords no submission has anymore come last, so leaving them out keeps the most frequent ones
+        return findMostFrequentByEventId(eventId, pageable).stream()
+                .filter(count -> count.getOccurrences() > 0)
+                .map(count -> new KeywordTotal(count.getKeyword(), count.getOccurrences()))
+                .collect(Collectors.toList());
+    }
+}
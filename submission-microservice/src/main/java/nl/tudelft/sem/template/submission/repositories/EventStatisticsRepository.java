@@ -0,0 +1,9 @@
+package nl.tudelft.sem.template.submission.repositories;
+
+import nl.tudelft.sem.template.submission.models.EventStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventStatisticsRepository extends JpaRepository<EventStatistics, Long> {
+}
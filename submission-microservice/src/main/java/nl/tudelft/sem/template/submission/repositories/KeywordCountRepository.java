@@ -0,0 +1,76 @@
+package nl.tudelft.sem.template.submission.repositories;
+
+import nl.tudelft.sem.template.submission.models.KeywordCount;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+public interface KeywordCountRepository extends JpaRepository<KeywordCount, KeywordCount.Key> {
+    @Transactional
+    @Modifying
+    @Query("update KeywordCount k set k.occurrences = k.occurrences + ?3 where k.trackId = ?1 and k.keyword = ?2")
+    int increment(long trackId, String keyword, long change);
+
+    @Transactional
+    @Modifying
+    @Query("delete from KeywordCount k where k.trackId = ?1 and k.occurrences <= 0")
+    int deleteUnused(long trackId);
+
+    @Query("select k from KeywordCount k where k.trackId in ?1 and k.occurrences > 0"
+            + " order by k.trackId, k.occurrences desc, k.keyword")
+    List<KeywordCount> findUsedByTrackIds(Collection<Long> trackIds);
+
+    /**
+     * Returns the keywords of a track, most frequent first. The rows are read in the order of the index
+     * on the counts of the track, so a page of the top keywords reads only that many rows. The order starts
+     * with the track, although it is the same for all rows, as otherwise the database does not see that
+     * the index is in this order.
+     *
+     * @param trackId  id of a track
+     * @param pageable page of keywords to return
+     * @return counts of the keywords
+     */
+    @Query("select k from KeywordCount k where k.trackId = ?1 order by k.trackId, k.occurrences desc, k.keyword")
+    List<KeywordCount> findMostFrequentByTrackId(long trackId, Pageable pageable);
+
+    /**
+     * Returns the number of submissions per used keyword of a track, most frequent keywords first.
+     *
+     * @param trackId  id of a track
+     * @param pageable page of keywords to return
+     * @return keywords with their counts
+     */
+    default List<KeywordTotal> topByTrackId(long trackId, Pageable pageable) {
+        // keywords no submission has anymore come last, so leaving them out keeps the most frequent ones
+        return findMostFrequentByTrackId(trackId, pageable).stream()
+                .filter(count -> count.getOccurrences() > 0)
+                .map(count -> new KeywordTotal(count.getKeyword(), count.getOccurrences()))
+                .collect(Collectors.toList());
+    }
+
+    default List<KeywordTotal> sumByEventId(long eventId) {
+        return sumByEventId(eventId, Pageable.unpaged());
+    }
+
+    /**
+     * Returns the number of submissions per keyword in the given event, most frequent keywords first.
+     *
+     * @param eventId  id of an event
+     * @param pageable page of keywords to return
+     * @return keywords with their counts
+     */
+    @Query("select new nl.tudelft.sem.template.submission.models.KeywordTotal(k.keyword, sum(k.occurrences))"
+            + " from KeywordCount k"
+            + " where k.eventId = ?1 and k.occurrences > 0"
+            + " group by k.keyword order by sum(k.occurrences) desc, k.keyword")
+    List<KeywordTotal> sumByEventId(long eventId, Pageable pageable);
+}
@@ -1,9 +1,21 @@
 package nl.tudelft.sem.template.submission.repositories;
 
 import nl.tudelft.sem.template.model.Statistics;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface StatisticsRepository extends JpaRepository<Statistics, Long> {
+    /**
+     * Returns statistics of the tracks after a given track, ordered by track id.
+     * Pages are found by the primary key instead of an offset, so every page is read equally fast.
+     *
+     * @param id       id of the last track of the previous page
+     * @param pageable size of the page
+     * @return statistics of the next tracks
+     */
+    List<Statistics> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 }
@@ -2,25 +2,130 @@ package nl.tudelft.sem.template.submission.repositories;
 
 import nl.tudelft.sem.template.model.PaperType;
 import nl.tudelft.sem.template.model.Submission;
+import nl.tudelft.sem.template.submission.models.SubmissionRow;
+import nl.tudelft.sem.template.submission.models.TrackEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long>, JpaSpecificationExecutor<Submission> {
-    @Query("select s from Submission s where "
+    String ROW = "select new nl.tudelft.sem.template.submission.models.SubmissionRow(s.id, s.submittedBy,"
+            + " s.title, s.textFilePath, s._abstract, s.link, s.trackId, s.eventId, s.type, s.status,"
+            + " s.created, s.updated)";
+
+    /**
+     * Filters of the listing. Submissions with one of the authors or keywords are looked up in the index on
+     * the authors and keywords tables, instead of checking the authors and keywords of every submission.
+     */
+    String MATCHING = " from Submission s where "
             + "(?1 is null or s.submittedBy = ?1)"
-            + " and ((?2) is null or exists (select a from s.authors a where a in (?2)))"
+            + " and ((?2) is null or s.id in (select au.id from Submission au join au.authors a where a in (?2)))"
             + " and (?3 is null or lower(s.title) like concat('%', lower(?3), '%'))"
-            + " and ((?4) is null or exists (select k from s.keywords k where k in (?4)))"
+            + " and ((?4) is null or s.id in (select ks.id from Submission ks join ks.keywords k where k in (?4)))"
             + " and ((?5 is null or s.trackId = ?5))"
             + " and ((?6 is null or s.eventId = ?6))"
-            + " and (?7 is null or s.type = ?7)")
-    List<Submission> findAllMatching(Long submittedBy, List<Long> authors,
+            + " and (?7 is null or s.type = ?7)";
+
+    @Query(ROW + MATCHING)
+    List<SubmissionRow> findAllMatching(Long submittedBy, List<Long> authors,
                                      String title, List<String> keywords, Long trackId,
                                      Long eventId, PaperType type) throws IllegalArgumentException;
 
+    @Query("select s.id" + MATCHING)
+    List<Long> findIdsMatching(Long submittedBy, List<Long> authors,
+                               String title, List<String> keywords, Long trackId,
+                               Long eventId, PaperType type);
+
+    /**
+     * Returns a page of the matching submissions ordered by id, starting after the given id.
+     * The page is found by the primary key instead of an offset, so every page is read equally fast.
+     */
+    @Query(ROW + MATCHING + " and (?8 is null or s.id > ?8) order by s.id")
+    List<SubmissionRow> findMatchingById(Long submittedBy, List<Long> authors,
+                                      String title, List<String> keywords, Long trackId,
+                                      Long eventId, PaperType type, Long afterId, Pageable pageable);
+
+    @Query(ROW + MATCHING + " and (?8 is null or s.id < ?8) order by s.id desc")
+    List<SubmissionRow> findMatchingByIdDesc(Long submittedBy, List<Long> authors,
+                                          String title, List<String> keywords, Long trackId,
+                                          Long eventId, PaperType type, Long beforeId, Pageable pageable);
+
+    /**
+     * Returns a page of the matching submissions ordered by creation date, starting after the given
+     * creation date and id. Submissions created at the same time are ordered by id.
+     */
+    @Query(ROW + MATCHING + " and (?8 is null or s.created > ?8 or (s.created = ?8 and s.id > ?9))"
+            + " order by s.created, s.id")
+    List<SubmissionRow> findMatchingByCreated(Long submittedBy, List<Long> authors,
+                                           String title, List<String> keywords, Long trackId,
+                                           Long eventId, PaperType type, LocalDateTime afterCreated,
+                                           Long afterId, Pageable pageable);
+
+    @Query(ROW + MATCHING + " and (?8 is null or s.created < ?8 or (s.created = ?8 and s.id < ?9))"
+            + " order by s.created desc, s.id desc")
+    List<SubmissionRow> findMatchingByCreatedDesc(Long submittedBy, List<Long> authors,
+                                               String title, List<String> keywords, Long trackId,
+                                               Long eventId, PaperType type, LocalDateTime beforeCreated,
+                                               Long beforeId, Pageable pageable);
+
+    @Query(ROW + " from Submission s where s.id = ?1")
+    Optional<SubmissionRow> findRowById(long id);
+
+    @Query(ROW + " from Submission s where s.id in ?1")
+    List<SubmissionRow> findRowsByIdIn(Collection<Long> ids);
+
+    @Query("select s.id, a from Submission s join s.authors a where s.id in ?1")
+    List<Object[]> findAuthorsOf(Collection<Long> ids);
+
+    /**
+     * Returns whether a user is an author of a submission, without loading the authors of the submission.
+     */
+    @Query("select case when count(s) > 0 then true else false end"
+            + " from Submission s join s.authors a where s.id = ?1 and a = ?2")
+    boolean isAuthor(long submissionId, long userId);
+
+    @Query("select a, s.id from Submission s join s.authors a where a in ?1 order by a, s.id")
+    List<Object[]> findIdsByAuthorIn(Collection<Long> authorIds);
+
+    /**
+     * Returns the ids of the submissions of every given author, found in the index on the authors table.
+     *
+     * @param authorIds ids of the authors
+     * @return ids of the submissions per author in ascending order, authors without submissions are left out
+     */
+    default Map<Long, List<Long>> findIdsByAuthors(Collection<Long> authorIds) {
+        Map<Long, List<Long>> submissions = new LinkedHashMap<>();
+        for (Object[] row : findIdsByAuthorIn(authorIds)) {
+            submissions.computeIfAbsent((Long) row[0], author -> new ArrayList<>()).add((Long) row[1]);
+        }
+        return submissions;
+    }
+
+    @Query("select s.id, k from Submission s join s.keywords k where s.id in ?1")
+    List<Object[]> findKeywordsOf(Collection<Long> ids);
+
+    @Query("select s.id, c from Submission s join s.comments c where s.id in ?1")
+    List<Object[]> findCommentsOf(Collection<Long> ids);
+
+    @Query("select s.id, u from Submission s join s.conflictsOfInterest.userIds u where s.id in ?1")
+    List<Object[]> findConflictUserIdsOf(Collection<Long> ids);
+
+    @Query("select s.id, t from Submission s join s.conflictsOfInterest.types t where s.id in ?1")
+    List<Object[]> findConflictTypesOf(Collection<Long> ids);
+
+    @Query("select distinct new nl.tudelft.sem.template.submission.models.TrackEvent(s.trackId, s.eventId)"
+            + " from Submission s where s.trackId is not null and s.eventId is not null")
+    List<TrackEvent> findTrackEvents();
+
 }
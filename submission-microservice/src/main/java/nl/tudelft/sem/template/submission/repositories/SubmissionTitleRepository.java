@@ -0,0 +1,10 @@
+package nl.tudelft.sem.template.submission.repositories;
+
+import nl.tudelft.sem.template.submission.models.SubmissionTitle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SubmissionTitleRepository extends JpaRepository<SubmissionTitle, Long> {
+    boolean existsByEventIdAndNormalizedTitle(Long eventId, String normalizedTitle);
+}
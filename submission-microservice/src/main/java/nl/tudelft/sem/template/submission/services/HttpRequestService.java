@@ -3,30 +3,125 @@ package nl.tudelft.sem.template.submission.services;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import nl.tudelft.sem.template.submission.authentication.JwtTokenVerifier;
+import lombok.Getter;
+import nl.tudelft.sem.template.model.Track;
+import nl.tudelft.sem.template.submission.authentication.AuthManager;
+import nl.tudelft.sem.template.submission.components.cache.ExpiringCache;
+import nl.tudelft.sem.template.submission.components.http.CircuitBreaker;
+import nl.tudelft.sem.template.submission.components.http.HostConcurrencyLimiter;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
+import nl.tudelft.sem.template.submission.components.http.ServiceUnavailableException;
+import nl.tudelft.sem.template.submission.configs.HttpClientProperties;
 import nl.tudelft.sem.template.submission.models.RequestType;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 @Service
 public class HttpRequestService {
 
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Duration requestTimeout;
+    private final Duration responseTimeout;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final JwtTokenVerifier jwtTokenVerifier;
+    private final AuthManager authManager;
 
     private final String userMicroserviceUrl = "http://localhost:8085/";
     private final String reviewMicroserviceUrl = "http://localhost:8082/";
 
-    public HttpRequestService(JwtTokenVerifier jwtTokenVerifier) {
-        this.jwtTokenVerifier = jwtTokenVerifier;
+    private static final Pattern TRACK_URL = Pattern.compile("track/\\d+");
+    private static final Duration TRACK_CACHE_TTL = Duration.ofSeconds(30);
+    private static final int TRACK_CACHE_SIZE = 1000;
+
+    private static final Duration USER_ID_CACHE_TTL = Duration.ofMinutes(10);
+    private static final Duration UNKNOWN_USER_CACHE_TTL = Duration.ofSeconds(30);
+    private static final int USER_ID_CACHE_SIZE = 10_000;
+
+    /**
+     * Reads body of a response as a string, or as null if the requested resource does not exist.
+     */
+    private static final HttpResponse.BodyHandler<String> NOT_FOUND_AS_NULL = responseInfo ->
+            responseInfo.statusCode() == 404
+                    ? HttpResponse.BodySubscribers.replacing(null)
+                    : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+
+    @Getter
+    private final ExpiringCache<String, Track> trackCache = new ExpiringCache<>(TRACK_CACHE_TTL, TRACK_CACHE_SIZE);
+
+    /**
+     * Ids of users by their email. Empty for emails that do not belong to any user.
+     * Entries are never invalidated, so a changed email is picked up once its entry expires.
+     */
+    @Getter
+    private final ExpiringCache<String, Optional<Long>> userIdCache =
+            new ExpiringCache<>(USER_ID_CACHE_TTL, USER_ID_CACHE_SIZE);
+
+    @Getter
+    private final HostConcurrencyLimiter hostLimiter;
+    private final Map<RequestType, CircuitBreaker> circuitBreakers = new EnumMap<>(RequestType.class);
+
+    private final LongAdder sentRequests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+
+    /**
+     * HttpRequestService constructor.
+     *
+     * @param authManager auth manager
+     * @param properties  settings of the http client
+     */
+    public HttpRequestService(AuthManager authManager,
+                              HttpClientProperties properties) {
+        this.authManager = authManager;
+        this.requestTimeout = properties.getRequestTimeout();
+        this.responseTimeout = properties.getRequestTimeout().plus(properties.getQueueTimeout());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getExecutorThreads(), properties.getExecutorThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getExecutorQueueSize()), runnable -> {
+                    Thread thread = new Thread(runnable, "http-request-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.hostLimiter = new HostConcurrencyLimiter(properties.getMaxRequestsPerHost(),
+                properties.getMaxQueuedRequestsPerHost());
+        for (RequestType requestType : RequestType.values()) {
+            circuitBreakers.put(requestType, new CircuitBreaker(properties.getCircuitBreakerFailureThreshold(),
+                    properties.getCircuitBreakerOpenDuration()));
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .version(properties.isPreferHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
     }
 
     public class BadResponseException extends RuntimeException {
@@ -37,20 +132,181 @@ public class HttpRequestService {
     }
 
     /**
-     * Returns response as a string.
+     * Stops threads handling asynchronous requests.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Returns number of requests sent to other microservices.
+     *
+     * @return number of sent requests
+     */
+    public long getSentRequests() {
+        return sentRequests.sum();
+    }
+
+    /**
+     * Returns number of requests that failed without a response, e.g. because of a timeout.
+     *
+     * @return number of failed requests
+     */
+    public long getFailedRequests() {
+        return failedRequests.sum();
+    }
+
+    /**
+     * Returns number of responses received over HTTP/2, i.e. the requests the other side
+     * agreed to multiplex instead of falling back to HTTP/1.1.
+     *
+     * @return number of HTTP/2 responses
+     */
+    public long getHttp2Responses() {
+        return http2Responses.sum();
+    }
+
+    /**
+     * Returns circuit breaker guarding requests to a microservice, e.g. to read its state and counters.
+     *
+     * @param requestType requested microservice
+     * @return circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker(RequestType requestType) {
+        return circuitBreakers.get(requestType);
+    }
+
+    /**
+     * Builds a request carrying the token of the user on whose behalf it is made.
+     * The token is read here, on the request thread, so requests sent asynchronously
+     * keep the token of the user that started them.
      *
      * @param url url
-     * @return response
-     * @throws IOException          if http request was not successful
-     * @throws InterruptedException if request was interrupted
+     * @return request
      */
-    private String getResponse(String url) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
+    private HttpRequest buildRequest(String url) {
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .header("Authorization", "Bearer " + jwtTokenVerifier.getLastEnteredToken())
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + authManager.getToken())
                 .GET()
                 .build();
-        return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    /**
+     * Sends request once the microservice it is addressed to has a free slot.
+     * The request is built right away, so it carries the token of the calling thread.
+     * Fails right away if the microservice is failing or too many requests are waiting for it,
+     * and fails once the request timeout plus the time a request may wait for a free slot have passed.
+     *
+     * @param url         url
+     * @param requestType requested microservice
+     * @param bodyHandler decides how the response body is read
+     * @return future completed with the response body
+     */
+    private <B> CompletableFuture<B> send(String url, RequestType requestType,
+                                          HttpResponse.BodyHandler<B> bodyHandler) {
+        // a request that cannot be built must not take the probe of a half-open breaker
+        HttpRequest request = buildRequest(url);
+        CircuitBreaker circuitBreaker = circuitBreakers.get(requestType);
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("The " + requestType + " microservice is unavailable"));
+        }
+
+        CompletableFuture<B> result = hostLimiter.submit(request.uri().getAuthority(), () -> {
+            sentRequests.increment();
+            return httpClient.sendAsync(request, bodyHandler);
+        }).handle((response, exception) -> {
+            if (unwrap(exception) instanceof RejectedExecutionException) {
+                // rejected by our own queue, the request was never sent, so it says nothing about the microservice
+                circuitBreaker.release();
+                throw new ServiceUnavailableException("The " + requestType + " microservice is overloaded");
+            }
+            if (exception != null) {
+                failedRequests.increment();
+                circuitBreaker.onFailure();
+                throw new BadResponseException("Error occurred while making the HTTP request");
+            }
+            if (response.statusCode() >= 500) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.increment();
+            }
+            return response.body();
+        });
+
+        // the timeout of the request only starts once it is sent, not while it waits for a free slot
+        CompletableFuture<B> bounded = new CompletableFuture<>();
+        result.whenComplete((body, exception) -> {
+            if (exception != null) {
+                bounded.completeExceptionally(exception);
+            } else if (!bounded.complete(body)) {
+                // nobody waits for a response that arrived too late
+                closeQuietly(body);
+            }
+        });
+        return bounded.orTimeout(responseTimeout.toMillis(), TimeUnit.MILLISECONDS).exceptionally(exception -> {
+            if (unwrap(exception) instanceof TimeoutException) {
+                throw new ServiceUnavailableException("The " + requestType + " microservice did not respond in time");
+            }
+            throw exception instanceof CompletionException
+                    ? (CompletionException) exception : new CompletionException(exception);
+        });
+    }
+
+    private static void closeQuietly(Object body) {
+        if (body instanceof Closeable) {
+            try {
+                ((Closeable) body).close();
+            } catch (IOException e) {
+                // the response is discarded anyway
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable exception) {
+        if (exception instanceof CompletionException && exception.getCause() != null) {
+            return exception.getCause();
+        }
+        return exception;
+    }
+
+    /**
+     * Waits for the response body of a request. The wait is bounded, as the response fails
+     * with {@link ServiceUnavailableException} once it takes longer than the response timeout.
+     *
+     * @param response future completed with the response body
+     * @return response body
+     * @throws IOException          if http request was not successful
+     * @throws InterruptedException if request was interrupted
+     */
+    private <B> B await(CompletableFuture<B> response) throws IOException, InterruptedException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServiceUnavailableException) {
+                throw (ServiceUnavailableException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns response as a string.
+     *
+     * @param url         url
+     * @param requestType requested microservice
+     * @return response
+     * @throws IOException          if http request was not successful
+     * @throws InterruptedException if request was interrupted
+     */
+    private String getResponse(String url, RequestType requestType) throws IOException, InterruptedException {
+        return await(send(url, requestType, HttpResponse.BodyHandlers.ofString()));
     }
 
     /**
@@ -71,6 +327,28 @@ public class HttpRequestService {
         }
     }
 
+    private boolean isCachedTrack(String url, Class<?> responseType, RequestType requestType) {
+        return responseType.equals(Track.class) && requestType.equals(RequestType.USER)
+                && TRACK_URL.matcher(url).matches();
+    }
+
+    private String readAttribute(String response, String attribute) {
+        try {
+            JsonNode jsonNode = objectMapper.readTree(response);
+            return jsonNode.get(attribute).asText();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    private <T> T readValue(String response, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
     /**
      * Makes request and returns a single attribute from json.
      *
@@ -82,20 +360,15 @@ public class HttpRequestService {
     public String getAttribute(String url, RequestType requestType, String attribute) {
         url = buildUrl(url, requestType);
         try {
-            String response = getResponse(url);
-            try {
-                JsonNode jsonNode = objectMapper.readTree(response);
-                return jsonNode.get(attribute).asText();
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e.getMessage());
-            }
+            return readAttribute(getResponse(url, requestType), attribute);
         } catch (IOException | InterruptedException exception) {
             throw new BadResponseException("Error occurred while making the HTTP request");
         }
     }
 
     /**
-     * get list request method.
+     * get request method.
+     * Tracks requested by id are served from the track cache.
      *
      * @param url          where to send the get request to
      * @param responseType what type is the object that we are trying to receive
@@ -103,17 +376,16 @@ public class HttpRequestService {
      * @return object which is the result of the get query
      */
     public <T> T get(String url, Class<T> responseType, RequestType requestType) {
+        if (isCachedTrack(url, responseType, requestType)) {
+            return responseType.cast(trackCache.get(url, () -> fetch(url, Track.class, requestType)));
+        }
+        return fetch(url, responseType, requestType);
+    }
+
+    private <T> T fetch(String url, Class<T> responseType, RequestType requestType) {
         url = buildUrl(url, requestType);
         try {
-            String response = getResponse(url);
-            try {
-                T object;
-                object = objectMapper.readValue(response, responseType);
-                return object;
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e.getMessage());
-            }
-
+            return readValue(getResponse(url, requestType), responseType);
         } catch (IOException | InterruptedException exception) {
             throw new BadResponseException("Error occurred while making the HTTP request");
         }
@@ -121,6 +393,7 @@ public class HttpRequestService {
 
     /**
      * get list request method.
+     * The response is parsed while it is being received, without buffering it first.
      *
      * @param url          where to send the get request to
      * @param responseType what type is the object that we are trying to receive
@@ -128,20 +401,80 @@ public class HttpRequestService {
      * @return list of objects which is the result of the get query
      */
     public <T> List<T> getList(String url, Class<T[]> responseType, RequestType requestType) {
-        url = buildUrl(url, requestType);
-
-        try {
-            String response = getResponse(url);
-            try {
-                List<T> objects;
-                objects = Arrays.asList(objectMapper.readValue(response, responseType));
-                return objects;
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e.getMessage());
-            }
+        @SuppressWarnings("unchecked")
+        Class<T> elementType = (Class<T>) responseType.getComponentType();
+        List<T> result = new ArrayList<>();
+        forEach(url, elementType, requestType, result::add);
+        return result;
+    }
 
+    /**
+     * Visits the elements of a json array returned by a get request, in order.
+     * The response is parsed while it is being received, and the rest of it is
+     * not read once the visitor asks to stop.
+     *
+     * @param url         where to send the get request to
+     * @param elementType type of the elements of the array
+     * @param requestType where to send the request to
+     * @param visitor     called with every element, returns false to stop reading
+     * @return true if all elements were visited, false if the visitor stopped early
+     */
+    public <T> boolean forEach(String url, Class<T> elementType, RequestType requestType,
+                               Predicate<? super T> visitor) {
+        url = buildUrl(url, requestType);
+        try (JsonArrayReader<T> reader = new JsonArrayReader<>(objectMapper,
+                await(send(url, requestType, HttpResponse.BodyHandlers.ofInputStream())), elementType)) {
+            return reader.forEach(visitor);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e.getMessage());
         } catch (IOException | InterruptedException exception) {
             throw new BadResponseException("Error occurred while making the HTTP request");
         }
     }
+
+    /**
+     * Sends get request for a json array without blocking. The returned reader parses
+     * the response while it is being received, on the thread that reads it, and can stop
+     * before the end of the array. The reader has to be closed.
+     *
+     * @param url         where to send the get request to
+     * @param elementType type of the elements of the array
+     * @param requestType where to send the request to
+     * @return future completed with a reader of the response, once its headers arrive
+     */
+    public <T> CompletableFuture<JsonArrayReader<T>> getListReaderAsync(String url, Class<T> elementType,
+                                                                       RequestType requestType) {
+        return send(buildUrl(url, requestType), requestType, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(body -> new JsonArrayReader<>(objectMapper, body, elementType));
+    }
+
+    /**
+     * Returns id of the user with a given email.
+     * Ids are cached for ten minutes, and so are emails that do not belong to any user, for thirty seconds.
+     *
+     * @param email email of the user, usually the authenticated principal from the auth manager
+     * @return future completed with the user id, or failed with {@link IllegalAccessException}
+     *     if there is no user with this email
+     */
+    public CompletableFuture<Long> getUserIdAsync(String email) {
+        Optional<Long> cached = userIdCache.getIfPresent(email);
+        if (cached != null) {
+            return cached.map(CompletableFuture::completedFuture)
+                    .orElseGet(() -> CompletableFuture.failedFuture(unknownUser()));
+        }
+        return send(buildUrl("user/byEmail/" + email, RequestType.USER), RequestType.USER, NOT_FOUND_AS_NULL)
+                .thenApply(response -> {
+                    if (response == null) {
+                        userIdCache.put(email, Optional.empty(), Instant.now().plus(UNKNOWN_USER_CACHE_TTL));
+                        throw new CompletionException(unknownUser());
+                    }
+                    long userId = Long.parseLong(readAttribute(response, "id"));
+                    userIdCache.put(email, Optional.of(userId));
+                    return userId;
+                });
+    }
+
+    private static IllegalAccessException unknownUser() {
+        return new IllegalAccessException("There is no user with this email.");
+    }
 }
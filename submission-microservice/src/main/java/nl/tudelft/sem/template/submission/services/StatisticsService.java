@@ -3,43 +3,75 @@ package nl.tudelft.sem.template.submission.services;
 import javassist.NotFoundException;
 import nl.tudelft.sem.template.model.*;
 import nl.tudelft.sem.template.submission.authentication.AuthManager;
-import nl.tudelft.sem.template.submission.components.chain.BaseValidator;
+import nl.tudelft.sem.template.submission.components.cache.RoleCache;
 import nl.tudelft.sem.template.submission.components.chain.UserValidator;
+import nl.tudelft.sem.template.submission.components.chain.ValidationContext;
+import nl.tudelft.sem.template.submission.components.chain.Validator;
+import nl.tudelft.sem.template.submission.components.statistics.StatisticsAggregator;
 import nl.tudelft.sem.template.submission.components.strategy.GeneralStrategy;
+import nl.tudelft.sem.template.submission.models.KeywordCount;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
 import nl.tudelft.sem.template.submission.models.RequestType;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.EventStatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
 import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
 import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.util.Optional;
 
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and counts statistics of tracks and events.
+ * <p>
+ * Changes are counted in memory and written with the next scheduled flush, every
+ * {@code statistics.flush-interval-ms} milliseconds. Reads do not flush, so they never wait for
+ * the batch being written, and show the statistics as of the last flush. They miss at most the
+ * changes of one flush interval, plus the time a flush takes.
+ * </p>
+ */
 @Service
 public class StatisticsService {
     private final SubmissionRepository submissionRepository;
     private final StatisticsRepository statisticsRepository;
+    private final KeywordCountRepository keywordCountRepository;
     private final HttpRequestService requestService;
-    private final AuthManager authManager;
-    private BaseValidator handler;
+    private final Validator chain;
+    private final StatisticsAggregator aggregator;
 
     /**
      * StatisticsService constructor.
      *
-     * @param statisticsRepository statistics repository
-     * @param requestService       http request service
+     * @param statisticsRepository        statistics repository
+     * @param keywordCountRepository      keyword count repository
+     * @param eventStatisticsRepository   event statistics repository
+     * @param eventKeywordCountRepository event keyword count repository
+     * @param requestService              http request service
      */
     public StatisticsService(SubmissionRepository submissionRepository,
                              StatisticsRepository statisticsRepository,
+                             KeywordCountRepository keywordCountRepository,
+                             EventStatisticsRepository eventStatisticsRepository,
+                             EventKeywordCountRepository eventKeywordCountRepository,
                              HttpRequestService requestService,
-                             AuthManager authManager) {
+                             AuthManager authManager,
+                             RoleCache roleCache) {
         this.submissionRepository = submissionRepository;
         this.statisticsRepository = statisticsRepository;
+        this.keywordCountRepository = keywordCountRepository;
         this.requestService = requestService;
-        this.authManager = authManager;
-    }
-
-    private void setupChain() {
-        handler = new UserValidator(submissionRepository, statisticsRepository,
-                requestService, authManager);
+        this.chain = new UserValidator(submissionRepository, statisticsRepository, keywordCountRepository,
+                eventStatisticsRepository, eventKeywordCountRepository, requestService, authManager, roleCache);
+        this.aggregator = new StatisticsAggregator(statisticsRepository, keywordCountRepository,
+                eventStatisticsRepository, eventKeywordCountRepository);
     }
 
     /**
@@ -51,101 +83,113 @@ public class StatisticsService {
      * @throws NotFoundException      if statistics for a given track / event was not collected yet
      */
     public Statistics getStatistics(long trackId) throws Exception {
-        setupChain();
-        GeneralStrategy strategy = handler.handle(null, null, trackId, null, HttpMethod.GET);
+        return getStatistics(trackId, null);
+    }
+
+    /**
+     * Returns statistics for a given track (for a PC chair) and event (for general chair)
+     * with only the most frequent keywords.
+     *
+     * @param trackId track id
+     * @param topK    number of most frequent keywords to return, null to return all keywords
+     * @return statistics for track / event
+     * @throws IllegalAccessException if user is not PC / general chair for the given track / event
+     * @throws NotFoundException      if statistics for a given track / event was not collected yet
+     */
+    public Statistics getStatistics(long trackId, Integer topK) throws Exception {
+        GeneralStrategy strategy = chain.handle(ValidationContext.forTrack(HttpMethod.GET, trackId));
 
         return strategy.getStatistics(
                 requestService.get("track/" + trackId,
                         Track.class,
-                        RequestType.USER));
+                        RequestType.USER),
+                topK);
     }
 
     /**
-     * Updates statistics for a given track after a new submission was added.
+     * Returns statistics of all tracks.
      *
-     * @param oldSubmission old submission
-     * @param newSubmission new submission
+     * @return statistics of every track with submissions
      */
-    public void updateStatistics(Submission oldSubmission, Submission newSubmission) {
-
-        Statistics trackStats;
-
-        if (oldSubmission == null) {
-            long trackId = newSubmission.getTrackId();
-            Optional<Statistics> optional = statisticsRepository.findById(trackId);
-            if (optional.isEmpty()) {
-                trackStats = new Statistics();
-                trackStats.setId(newSubmission.getTrackId());
-                trackStats.setTotalSubmissions(0L);
-            } else {
-                trackStats = optional.get();
-            }
-
-            addSubmission(trackStats, newSubmission);
-        } else {
-            long oldTrackId = oldSubmission.getTrackId();
-            Optional<Statistics> optional = statisticsRepository.findById(oldTrackId);
-            trackStats = optional.get();
-
-            if (newSubmission == null) {
-                deleteSubmission(trackStats, oldSubmission);
-            } else {
-                updateSubmission(trackStats, oldSubmission, newSubmission);
-            }
-        }
+    public List<Statistics> getAllStatistics() {
+        return withKeywordsCounts(statisticsRepository.findAll());
     }
 
     /**
-     * Updates statistics after new submission was made.
+     * Returns statistics of the tracks after a given track, ordered by track id.
      *
-     * @param statistics current statistics record
-     * @param submission new submission.
+     * @param cursor id of the last track of the previous page, null for the first page
+     * @param limit  maximum number of tracks to return
+     * @return statistics of the next tracks, empty after the last page
      */
-    private void addSubmission(Statistics statistics, Submission submission) {
-        StatisticsServiceUtils.changePaperCount(statistics, submission, 1L);
-
-        long n = statistics.getTotalSubmissions();
-        statistics.setAverageNumberOfAuthors((statistics.getAverageNumberOfAuthors()
-                * (n - 1) + submission.getAuthors().size()) / n);
-
-        StatisticsServiceUtils.updateKeywordsCounts(statistics, submission.getKeywords(), 1L);
-        statisticsRepository.save(statistics);
+    public List<Statistics> getStatisticsPage(Long cursor, int limit) {
+        return withKeywordsCounts(statisticsRepository.findByIdGreaterThanOrderByIdAsc(
+                cursor == null ? Long.MIN_VALUE : cursor, PageRequest.of(0, limit)));
     }
 
     /**
-     * Updates statistics after a submission was removed.
+     * Builds the statistics of tracks shown to users, with their keyword counts, reading the counts of all tracks
+     * at once. The stored statistics are copied, so they are not changed.
      *
-     * @param statistics current statistics record
-     * @param submission removed submission.
+     * @param statistics stored statistics of tracks
+     * @return statistics of the tracks with their keyword counts
      */
-    private void deleteSubmission(Statistics statistics, Submission submission) {
-        StatisticsServiceUtils.changePaperCount(statistics, submission, -1L);
-
-        long n = statistics.getTotalSubmissions();
-        statistics.setAverageNumberOfAuthors((statistics.getAverageNumberOfAuthors()
-                * (n + 1) - submission.getAuthors().size()) / n);
-        StatisticsServiceUtils.updateKeywordsCounts(statistics, submission.getKeywords(), -1L);
-        statisticsRepository.save(statistics);
+    private List<Statistics> withKeywordsCounts(List<Statistics> statistics) {
+        if (statistics.isEmpty()) {
+            return statistics;
+        }
+        List<Long> trackIds = statistics.stream().map(Statistics::getId).collect(Collectors.toList());
+        Map<Long, List<KeywordTotal>> totals = new HashMap<>();
+        for (KeywordCount count : keywordCountRepository.findUsedByTrackIds(trackIds)) {
+            totals.computeIfAbsent(count.getTrackId(), id -> new ArrayList<>())
+                    .add(new KeywordTotal(count.getKeyword(), count.getOccurrences()));
+        }
+        List<Statistics> result = new ArrayList<>(statistics.size());
+        for (Statistics track : statistics) {
+            result.add(StatisticsServiceUtils.withKeywordsCounts(track, StatisticsServiceUtils.toKeywordsCounts(
+                    totals.getOrDefault(track.getId(), List.of()))));
+        }
+        return result;
     }
 
+    /**
+     * Updates statistics for a given track after a submission was added, edited or deleted.
+     * The change is only counted in memory once the current transaction commits,
+     * it is written to the database with the next flush.
+     *
+     * @param oldSubmission old submission, null if the submission is new
+     * @param newSubmission new submission, null if the submission was deleted
+     */
+    public void updateStatistics(Submission oldSubmission, Submission newSubmission) {
+        if (oldSubmission == null) {
+            aggregator.add(newSubmission);
+        } else if (newSubmission == null) {
+            aggregator.remove(oldSubmission);
+        } else {
+            aggregator.update(oldSubmission, newSubmission);
+        }
+    }
 
+    /**
+     * Writes the statistics changes collected in memory to the database.
+     * Runs periodically and when the application shuts down.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${statistics.flush-interval-ms:5000}")
+    public void flush() {
+        aggregator.flush();
+    }
 
     /**
-     * Updates statistics after a submission was edited.
+     * Checks the statistics kept per event against the statistics of their tracks and repairs them if they differ.
+     * The event statistics are only changed by the amounts tracks change, so a failed update is not fixed otherwise.
      *
-     * @param statistics    statistics for a given track
-     * @param oldSubmission old version of submission
-     * @param newSubmission new version of submission
+     * @return number of events whose statistics were repaired
      */
-    private void updateSubmission(Statistics statistics, Submission oldSubmission, Submission newSubmission) {
-        long oldAuthorsNumber = oldSubmission.getAuthors().size();
-        long newAuthorsNumber = newSubmission.getAuthors().size();
-
-        long oldTotalAuthors = statistics.getAverageNumberOfAuthors() * statistics.getTotalSubmissions();
-        long newTotalAuthors = oldTotalAuthors - oldAuthorsNumber + newAuthorsNumber;
-        statistics.setAverageNumberOfAuthors(newTotalAuthors / statistics.getTotalSubmissions());
-        StatisticsServiceUtils.updateKeywordsCounts(statistics, oldSubmission.getKeywords(), -1L);
-        StatisticsServiceUtils.updateKeywordsCounts(statistics, newSubmission.getKeywords(), 1L);
-        statisticsRepository.save(statistics);
+    @Scheduled(initialDelayString = "${statistics.event-check-interval-ms:600000}",
+            fixedDelayString = "${statistics.event-check-interval-ms:600000}")
+    public int checkEventStatistics() {
+        flush();
+        return aggregator.checkEventStatistics(submissionRepository.findTrackEvents());
     }
 }
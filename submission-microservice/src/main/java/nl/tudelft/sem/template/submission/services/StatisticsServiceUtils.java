@@ -2,14 +2,12 @@ package nl.tudelft.sem.template.submission.services;
 
 import nl.tudelft.sem.template.model.KeywordsCounts;
 import nl.tudelft.sem.template.model.Statistics;
-import nl.tudelft.sem.template.model.Submission;
-import nl.tudelft.sem.template.model.SubmissionStatus;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class StatisticsServiceUtils {
 
@@ -17,61 +15,53 @@ public class StatisticsServiceUtils {
     }
 
     /**
-     * Updates keywords statistics. Called after a submission is added/deleted/updated.
+     * Returns the page of keyword counts to show.
      *
-     * @param statistics  statistics for a given track
-     * @param keywords    keywords in submission
-     * @param updateValue 1 if submission is added, -1 if submission is deleted
+     * @param topK number of most frequent keywords to show, null to show all keywords
+     * @return page of keyword counts
      */
-    public static void updateKeywordsCounts(Statistics statistics, List<String> keywords, long updateValue) {
-        KeywordsCounts keywordsCounts = statistics.getKeywordsCounts();
-        if (keywordsCounts == null) {
-            keywordsCounts = new KeywordsCounts();
-            keywordsCounts.setKeywords(List.of());
-            keywordsCounts.setCounts(List.of());
-        }
-        if (keywords == null) {
-            return;
-        }
-        Map<String, Long> counts = IntStream.range(0, keywordsCounts.getKeywords().size())
-                .boxed()
-                .collect(Collectors.toMap(keywordsCounts.getKeywords()::get, keywordsCounts.getCounts()::get));
-
-        for (String keyword : keywords) {
-            long count = counts.getOrDefault(keyword, 0L);
-            counts.put(keyword, count + updateValue);
-        }
+    public static Pageable keywordsPage(Integer topK) {
+        return topK == null ? Pageable.unpaged() : PageRequest.of(0, topK);
+    }
 
-        keywordsCounts.setKeywords(new ArrayList<>(counts.keySet()));
-        keywordsCounts.setCounts(new ArrayList<>(counts.values()));
-        statistics.setKeywordsCounts(keywordsCounts);
+    /**
+     * Builds the statistics shown to users from stored statistics and the keyword counts to show with them.
+     * The stored statistics are a managed entity, so they are copied instead of changed, otherwise the keyword
+     * counts shown would be written back with the next flush.
+     *
+     * @param stored         stored statistics of a track
+     * @param keywordsCounts keyword counts to show
+     * @return new statistics with the counts of the stored statistics and the given keyword counts
+     */
+    public static Statistics withKeywordsCounts(Statistics stored, KeywordsCounts keywordsCounts) {
+        return new Statistics()
+                .id(stored.getId())
+                .totalSubmissions(stored.getTotalSubmissions())
+                .open(stored.getOpen())
+                .accepted(stored.getAccepted())
+                .rejected(stored.getRejected())
+                .underReview(stored.getUnderReview())
+                .withdrawn(stored.getWithdrawn())
+                .averageNumberOfAuthors(stored.getAverageNumberOfAuthors())
+                .keywordsCounts(keywordsCounts);
     }
 
     /**
-     * Updates papers count per track. Called after a submission is added/deleted/updated.
+     * Builds the keywords statistics shown to users from the stored keyword counts.
      *
-     * @param statistics  statistics for a given track
-     * @param submission  submission
-     * @param updateValue 1 if submission is added, -1 if submission is deleted
+     * @param totals number of submissions per keyword
+     * @return keywords with their counts, in the order of the given totals
      */
-    public static void changePaperCount(Statistics statistics, Submission submission, long updateValue) {
-        SubmissionStatus status = submission.getStatus();
-        switch (status) {
-            case ACCEPTED -> {
-                statistics.setAccepted(statistics.getAccepted() + updateValue);
-            }
-            case OPEN -> {
-                statistics.setOpen(statistics.getOpen() + updateValue);
-            }
-            case REJECTED -> {
-                statistics.setRejected(statistics.getRejected() + updateValue);
-            }
-            default -> {
-                statistics.setUnderReview(statistics.getUnderReview() + updateValue);
-            }
+    public static KeywordsCounts toKeywordsCounts(List<KeywordTotal> totals) {
+        List<String> keywords = new ArrayList<>(totals.size());
+        List<Long> counts = new ArrayList<>(totals.size());
+        for (KeywordTotal total : totals) {
+            keywords.add(total.getKeyword());
+            counts.add(total.getOccurrences());
         }
-
-        long n = statistics.getTotalSubmissions();
-        statistics.setTotalSubmissions(n + updateValue);
+        KeywordsCounts keywordsCounts = new KeywordsCounts();
+        keywordsCounts.setKeywords(keywords);
+        keywordsCounts.setCounts(counts);
+        return keywordsCounts;
     }
-}
\ No newline at end of file
+}
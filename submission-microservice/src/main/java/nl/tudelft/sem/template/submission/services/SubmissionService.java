@@ -2,56 +2,249 @@ package nl.tudelft.sem.template.submission.services;
 
 import javassist.NotFoundException;
 import nl.tudelft.sem.template.model.PaperType;
+import nl.tudelft.sem.template.model.SimilarSubmission;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.submission.authentication.AuthManager;
+import nl.tudelft.sem.template.submission.components.cache.RoleCache;
 import nl.tudelft.sem.template.submission.components.chain.*;
 import nl.tudelft.sem.template.submission.components.strategy.GeneralStrategy;
+import nl.tudelft.sem.template.submission.components.search.SearchIndex;
+import nl.tudelft.sem.template.submission.components.similarity.LshIndex;
+import nl.tudelft.sem.template.submission.components.similarity.MinHasher;
+import nl.tudelft.sem.template.submission.components.transaction.TransactionHooks;
+import nl.tudelft.sem.template.submission.models.SearchCursor;
+import nl.tudelft.sem.template.submission.models.SubmissionCursor;
+import nl.tudelft.sem.template.submission.models.SubmissionRow;
+import nl.tudelft.sem.template.submission.models.SubmissionSort;
+import nl.tudelft.sem.template.submission.models.SubmissionTitle;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.EventStatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
 import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
 import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
+import nl.tudelft.sem.template.submission.repositories.SubmissionTitleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PathVariable;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class SubmissionService {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionService.class);
+    private static final String NEXT_CURSOR = "Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String DUPLICATE_TITLE = "A submission with such a title already exists in this event!";
+
     private final SubmissionRepository submissionRepository;
     private final StatisticsService statisticsService;
     private final StatisticsRepository statisticsRepository;
+    private final KeywordCountRepository keywordCountRepository;
+    private final EventStatisticsRepository eventStatisticsRepository;
+    private final EventKeywordCountRepository eventKeywordCountRepository;
+    private final SubmissionTitleRepository submissionTitleRepository;
     private final HttpRequestService httpRequestService;
     private final AuthManager authManager;
-    private BaseValidator handler;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<HttpMethod, Validator> chains;
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final LshIndex paperIndex = new LshIndex();
 
     /**
      * Submission Service constructor.
      *
      * @param submissionRepository submission repository
+     * @param transactionManager   transaction manager the writes of a request are done with
      */
     @Autowired
     public SubmissionService(SubmissionRepository submissionRepository,
                              StatisticsService statisticsService,
                              StatisticsRepository statisticsRepository,
+                             KeywordCountRepository keywordCountRepository,
+                             EventStatisticsRepository eventStatisticsRepository,
+                             EventKeywordCountRepository eventKeywordCountRepository,
+                             SubmissionTitleRepository submissionTitleRepository,
                              HttpRequestService httpRequestService,
-                             AuthManager authManager) {
+                             AuthManager authManager,
+                             RoleCache roleCache,
+                             PlatformTransactionManager transactionManager) {
         this.submissionRepository = submissionRepository;
         this.statisticsService = statisticsService;
         this.statisticsRepository = statisticsRepository;
+        this.keywordCountRepository = keywordCountRepository;
+        this.eventStatisticsRepository = eventStatisticsRepository;
+        this.eventKeywordCountRepository = eventKeywordCountRepository;
+        this.submissionTitleRepository = submissionTitleRepository;
         this.httpRequestService = httpRequestService;
         this.authManager = authManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chains = buildChains(roleCache);
+    }
+
+    /**
+     * Builds the validation chain of every operation once. The chains keep no per-request state,
+     * so they are shared by all requests. Reading and deleting a submission is not bound to a deadline,
+     * and only new submissions need to be validated, so those operations get shorter chains.
+     *
+     * @param roleCache cache of the roles of attendees
+     * @return validation chain per request type
+     */
+    private Map<HttpMethod, Validator> buildChains(RoleCache roleCache) {
+        Map<HttpMethod, Validator> chains = new EnumMap<>(HttpMethod.class);
+        chains.put(HttpMethod.POST, userValidator(roleCache,
+                new DeadlineValidator(new SubmissionValidator(httpRequestService))));
+        chains.put(HttpMethod.PUT, userValidator(roleCache, new DeadlineValidator()));
+        chains.put(HttpMethod.DELETE, userValidator(roleCache, null));
+        chains.put(HttpMethod.GET, userValidator(roleCache, null));
+        return Collections.unmodifiableMap(chains);
+    }
+
+    private Validator userValidator(RoleCache roleCache, Validator next) {
+        return new UserValidator(submissionRepository, statisticsRepository, keywordCountRepository,
+                eventStatisticsRepository, eventKeywordCountRepository, httpRequestService, authManager, roleCache,
+                next);
     }
 
-    private void setupChain() {
-        DeadlineValidator deadlineValidator = new DeadlineValidator();
-        deadlineValidator.setNext(new SubmissionValidator(httpRequestService));
-        handler = new UserValidator(submissionRepository, statisticsRepository, httpRequestService,
-                authManager);
-        handler.setNext(deadlineValidator);
+    /**
+     * Fills the search index and the index of papers with the submissions stored when the application starts.
+     * From then on the indexes are updated whenever a submission is added, updated or deleted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        for (SubmissionRow row : submissionRepository.findAllMatching(null, null, null, null, null, null, null)) {
+            searchIndex.index(row.getId(), row.getTitle(), row.getAbstractText());
+            long[] signature = paperSignature(row.getId(), row.getTextFilePath());
+            if (signature != null) {
+                paperIndex.add(row.getId(), row.getEventId(), signature);
+            }
+        }
+    }
+
+    /**
+     * Reads the uploaded paper of a submission and computes its MinHash signature.
+     *
+     * @param submissionId id of the submission
+     * @param textFilePath path of the paper, null if it was not saved
+     * @return signature of the paper, null if there is no paper or it has no words
+     */
+    private long[] paperSignature(long submissionId, String textFilePath) {
+        if (textFilePath == null) {
+            return null;
+        }
+        try {
+            return MinHasher.signature(Files.readString(Path.of(textFilePath)));
+        } catch (IOException e) {
+            logger.warn("Paper of submission {} could not be read from {}", submissionId, textFilePath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Adds the paper of a new submission to the index of its event once the transaction saving it commits,
+     * and logs the papers it is a near-duplicate of. Checking and adding is one step, so two near-duplicate
+     * papers uploaded at the same time always find each other.
+     *
+     * @param submission saved submission
+     */
+    private void indexPaper(Submission submission) {
+        final long submissionId = submission.getId();
+        final Long eventId = submission.getEventId();
+        final long[] signature = paperSignature(submissionId, submission.getTextFilePath());
+        if (signature == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            List<SimilarSubmission> similar = paperIndex.addAndFindSimilar(submissionId, eventId, signature);
+            if (!similar.isEmpty()) {
+                logger.warn("Paper of submission {} is a near-duplicate of the papers of submissions {}",
+                        submissionId, similar.stream().map(SimilarSubmission::getSubmissionId)
+                                .collect(Collectors.toList()));
+            }
+        });
+    }
+
+    /**
+     * Adds the title and abstract of a submission to the search index once the transaction saving it commits,
+     * so the index never returns a submission that was rolled back.
+     *
+     * @param submission saved submission
+     */
+    private void indexText(Submission submission) {
+        final long submissionId = submission.getId();
+        final String title = submission.getTitle();
+        final String abstractText = submission.getAbstract();
+        TransactionHooks.afterCommit(() -> searchIndex.index(submissionId, title, abstractText));
+    }
+
+    private GeneralStrategy validate(HttpMethod requestType, Submission submission) throws Exception {
+        return chains.get(requestType).handle(ValidationContext.forSubmission(requestType, submission));
+    }
+
+    /**
+     * Runs the writes of a request in a transaction, which is rolled back if they throw any exception.
+     * Requests are validated before the transaction starts, so the blocking requests to other microservices
+     * in the validation chains do not hold a pooled database connection.
+     *
+     * @param writes writes of the request
+     * @throws Exception exception thrown by the writes
+     */
+    private void inTransaction(Writes writes) throws Exception {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    writes.run();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedException(e);
+                }
+            });
+        } catch (CheckedException e) {
+            throw e.exception;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writes {
+        void run() throws Exception;
+    }
+
+    /**
+     * Carries a checked exception out of a transaction, which rolls the transaction back.
+     */
+    private static final class CheckedException extends RuntimeException {
+        private final Exception exception;
+
+        private CheckedException(Exception exception) {
+            super(exception);
+            this.exception = exception;
+        }
     }
 
     /**
@@ -61,13 +254,17 @@ public class SubmissionService {
      * @return response with created submission if success, otherwise error
      */
     public ResponseEntity<String> add(Submission submission) throws Exception {
-        setupChain();
-        handler.handle(null, null, null, submission, HttpMethod.POST);
-        if (!checkDuplicateSubmissions(submission)) {
-            throw new DuplicateSubmissionException("A submission with such a title already exists in this event!");
-        }
-        statisticsService.updateStatistics(null, submission);
-        submissionRepository.save(submission);
+        validate(HttpMethod.POST, submission);
+        inTransaction(() -> {
+            if (!checkDuplicateSubmissions(submission)) {
+                throw new DuplicateSubmissionException(DUPLICATE_TITLE);
+            }
+            saveTitle(SubmissionTitle.of(submission));
+            statisticsService.updateStatistics(null, submission);
+            submissionRepository.save(submission);
+            indexText(submission);
+            indexPaper(submission);
+        });
         return ResponseEntity.status(HttpStatus.CREATED).body("""
                 Submission added successfully!
                 Here is the id for your new submission:\s""" + submission.getId());
@@ -81,10 +278,16 @@ public class SubmissionService {
      */
     public ResponseEntity<Void> delete(@PathVariable("id") Long submissionId) throws Exception {
         Submission submission = findSubmission(submissionId);
-        setupChain();
-        GeneralStrategy strategy = handler.handle(null, null, null, submission, HttpMethod.DELETE);
-        strategy.deleteSubmission(submission);
-        statisticsService.updateStatistics(submission, null);
+        GeneralStrategy strategy = validate(HttpMethod.DELETE, submission);
+        inTransaction(() -> {
+            strategy.deleteSubmission(submission);
+            submissionTitleRepository.findById(submissionId).ifPresent(submissionTitleRepository::delete);
+            TransactionHooks.afterCommit(() -> {
+                searchIndex.remove(submissionId);
+                paperIndex.remove(submissionId);
+            });
+            statisticsService.updateStatistics(submission, null);
+        });
         return ResponseEntity.ok().build();
     }
 
@@ -98,13 +301,36 @@ public class SubmissionService {
     public ResponseEntity<Submission> update(@PathVariable("id") Long submissionId,
                                              Submission updatedSubmission) throws Exception {
         Submission submission = findSubmission(submissionId);
-        setupChain();
-        GeneralStrategy strategy = handler.handle(null, null, null, submission, HttpMethod.PUT);
-        strategy.updateSubmission(submission, updatedSubmission);
-        statisticsService.updateStatistics(submission, updatedSubmission);
+        GeneralStrategy strategy = validate(HttpMethod.PUT, submission);
+        inTransaction(() -> {
+            strategy.updateSubmission(submission, updatedSubmission);
+            SubmissionTitle title = SubmissionTitle.of(submission);
+            if (!title.equals(submissionTitleRepository.findById(submissionId).orElse(null))) {
+                saveTitle(title);
+            }
+            indexText(submission);
+            final Long eventId = submission.getEventId();
+            TransactionHooks.afterCommit(() -> paperIndex.changeEvent(submissionId, eventId));
+            statisticsService.updateStatistics(submission, updatedSubmission);
+        });
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Saves the normalized title of a submission. The title is unique within an event, so this fails
+     * when another submission with the same title was saved since the last check.
+     *
+     * @param title normalized title of a submission
+     * @throws DuplicateSubmissionException if the event already has a submission with this title
+     */
+    private void saveTitle(SubmissionTitle title) throws DuplicateSubmissionException {
+        try {
+            submissionTitleRepository.saveAndFlush(title);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateSubmissionException(DUPLICATE_TITLE);
+        }
+    }
+
     private Submission findSubmission(long submissionId) throws NotFoundException {
         Optional<Submission> submission = submissionRepository.findById(submissionId);
         if (submission.isEmpty()) {
@@ -120,13 +346,40 @@ public class SubmissionService {
      * @return submission if it is found for a given id, error otherwise
      */
     public ResponseEntity<Submission> getById(Long submissionId) throws Exception {
-        Submission submission = findSubmission(submissionId);
-        setupChain();
-        GeneralStrategy strategy = handler.handle(null, null, null, submission, HttpMethod.GET);
+        // the strategies hide fields of the submission, so it must not be a managed entity
+        Optional<SubmissionRow> row = submissionRepository.findRowById(submissionId);
+        if (row.isEmpty()) {
+            throw new NotFoundException("Submission with the given id was not found.");
+        }
+        Submission submission = SubmissionServiceUtils.toSubmissions(submissionRepository, List.of(row.get())).get(0);
+        GeneralStrategy strategy = validate(HttpMethod.GET, submission);
 
         return ResponseEntity.ok().body(strategy.getSubmission(submission));
     }
 
+    /**
+     * Returns the submissions of the same event with a near-duplicate paper, found in the index of papers
+     * instead of by comparing the paper to every other paper.
+     *
+     * @param submissionId id of the submission
+     * @return submissions with a near-duplicate paper, the most similar first
+     * @throws NotFoundException      if the submission does not exist
+     * @throws IllegalAccessException if the user is not a chair of the track of the submission
+     */
+    public ResponseEntity<List<SimilarSubmission>> getSimilar(Long submissionId) throws Exception {
+        Optional<SubmissionRow> row = submissionRepository.findRowById(submissionId);
+        if (row.isEmpty()) {
+            throw new NotFoundException("Submission with the given id was not found.");
+        }
+        Long trackId = row.get().getTrackId();
+        if (trackId == null) {
+            throw new IllegalAccessException("User has not enough permissions to see similar submissions.");
+        }
+        GeneralStrategy strategy = chains.get(HttpMethod.GET)
+                .handle(ValidationContext.forTrack(HttpMethod.GET, trackId));
+        return ResponseEntity.ok().body(strategy.getSimilarSubmissions(paperIndex.findSimilar(submissionId)));
+    }
+
     /**
      * Returns list of submissions matching search criteria.
      *
@@ -142,32 +395,159 @@ public class SubmissionService {
     public ResponseEntity<List<Submission>> get(Long submittedBy, List<Long> authors,
                                                 String title, List<String> keywords, Long trackId,
                                                 Long eventId, PaperType type) {
+        return get(submittedBy, authors, title, keywords, trackId, eventId, type, null, null, null, null);
+    }
+
+    /**
+     * Returns a page of submissions matching search criteria.
+     * Without limit and cursor all matching submissions are returned.
+     *
+     * @param submittedBy Filter by person who submitted (optional)
+     * @param authors     Filter by author id (optional)
+     * @param title       Filter by submission name (optional)
+     * @param keywords    Filters by keywords (optional)
+     * @param trackId     Filter by track id (optional)
+     * @param eventId     Filter by event id (optional)
+     * @param type        Filter by submission type (optional)
+     * @param sort        Order of the submissions, by id if not given (optional)
+     * @param limit       Maximum number of submissions to return (optional)
+     * @param cursor      Cursor returned with the previous page (optional)
+     * @param q           Words to search for in the titles and abstracts, orders by relevance (optional)
+     * @return list of submissions, with the cursor of the next page in a header if there can be one
+     * @throws IllegalArgumentException if the sort order, limit or cursor is invalid
+     */
+    public ResponseEntity<List<Submission>> get(Long submittedBy, List<Long> authors,
+                                                String title, List<String> keywords, Long trackId,
+                                                Long eventId, PaperType type,
+                                                String sort, Integer limit, String cursor, String q) {
+        if (q != null) {
+            if (sort != null) {
+                throw new IllegalArgumentException("Search results are ordered by relevance");
+            }
+            return search(q, pageSize(limit), cursor == null ? 0 : SearchCursor.decode(cursor).getOffset(),
+                    submittedBy, authors, title, keywords, trackId, eventId, type);
+        }
+        SubmissionSort order = SubmissionSort.fromValue(sort);
+        if (limit == null && cursor == null) {
+            List<SubmissionRow> rows = sort == null
+                    ? submissionRepository.findAllMatching(submittedBy, authors, title, keywords, trackId,
+                    eventId, type)
+                    : findPage(order, null, Pageable.unpaged(), submittedBy, authors, title, keywords, trackId,
+                    eventId, type);
+            return ResponseEntity.ok().body(hideDetails(rows));
+        }
 
-        List<Submission> submissions = submissionRepository.findAllMatching(submittedBy, authors, title,
-                keywords, trackId, eventId, type);
-        List<Submission> result = submissions.stream().peek(x -> {
-            x.setStatus(null);
-            x.setCreated(null);
-            x.setUpdated(null);
-        }).collect(Collectors.toList());
+        int pageSize = pageSize(limit);
+        SubmissionCursor after = cursor == null ? null : SubmissionCursor.decode(cursor);
+        List<SubmissionRow> page = findPage(order, after, PageRequest.of(0, pageSize), submittedBy, authors,
+                title, keywords, trackId, eventId, type);
 
-        return ResponseEntity.ok().body(result);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR, SubmissionCursor.after(page.get(page.size() - 1)).encode());
+        }
+        return response.body(hideDetails(page));
+    }
+
+    private static int pageSize(Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
+    }
+
+    /**
+     * Returns a page of the submissions found in the search index, the most relevant first.
+     * The other filters are applied to the search results by intersecting them with the ids of
+     * the submissions matching the filters, which are only read if a filter is given.
+     */
+    private ResponseEntity<List<Submission>> search(String q, int pageSize, int offset,
+                                                    Long submittedBy, List<Long> authors, String title,
+                                                    List<String> keywords, Long trackId, Long eventId,
+                                                    PaperType type) {
+        List<Long> ranked = searchIndex.search(q);
+        if (submittedBy != null || authors != null || title != null || keywords != null || trackId != null
+                || eventId != null || type != null) {
+            Set<Long> matching = new HashSet<>(submissionRepository.findIdsMatching(submittedBy, authors, title,
+                    keywords, trackId, eventId, type));
+            ranked.removeIf(id -> !matching.contains(id));
+        }
+        List<Long> pageIds = ranked.subList(Math.min(offset, ranked.size()),
+                Math.min(offset + pageSize, ranked.size()));
+
+        Map<Long, SubmissionRow> rows = new HashMap<>();
+        for (SubmissionRow row : submissionRepository.findRowsByIdIn(pageIds)) {
+            rows.put(row.getId(), row);
+        }
+        List<SubmissionRow> page = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            // a submission deleted since it was found is left out
+            if (rows.containsKey(id)) {
+                page.add(rows.get(id));
+            }
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (offset + pageSize < ranked.size()) {
+            response.header(NEXT_CURSOR, new SearchCursor(offset + pageSize).encode());
+        }
+        return response.body(hideDetails(page));
+    }
+
+    private List<SubmissionRow> findPage(SubmissionSort order, SubmissionCursor after, Pageable pageable,
+                                      Long submittedBy, List<Long> authors, String title, List<String> keywords,
+                                      Long trackId, Long eventId, PaperType type) {
+        Long afterId = after == null ? null : after.getId();
+        if (order == SubmissionSort.ID) {
+            return submissionRepository.findMatchingById(submittedBy, authors, title, keywords, trackId,
+                    eventId, type, afterId, pageable);
+        } else if (order == SubmissionSort.ID_DESC) {
+            return submissionRepository.findMatchingByIdDesc(submittedBy, authors, title, keywords, trackId,
+                    eventId, type, afterId, pageable);
+        }
+
+        LocalDateTime afterCreated = null;
+        if (after != null) {
+            if (after.getCreated() == null) {
+                throw new IllegalArgumentException("Cursor is not valid for sort order " + order);
+            }
+            afterCreated = after.getCreated();
+        }
+        if (order == SubmissionSort.CREATED) {
+            return submissionRepository.findMatchingByCreated(submittedBy, authors, title, keywords, trackId,
+                    eventId, type, afterCreated, afterId, pageable);
+        }
+        return submissionRepository.findMatchingByCreatedDesc(submittedBy, authors, title, keywords, trackId,
+                eventId, type, afterCreated, afterId, pageable);
+    }
+
+    /**
+     * Builds the submissions shown in a listing, which do not show their status and dates.
+     * The submissions are not managed entities, so hiding these fields does not change the database.
+     */
+    private List<Submission> hideDetails(List<SubmissionRow> rows) {
+        List<Submission> submissions = SubmissionServiceUtils.toSubmissions(submissionRepository, rows);
+        for (Submission submission : submissions) {
+            submission.setStatus(null);
+            submission.setCreated(null);
+            submission.setUpdated(null);
+        }
+        return submissions;
     }
 
     /**
      * This method will be used to check whether there are any submissions
      * that are identical to the one that the user is trying to submit.
      * To check for whether it is identical or not, we are just going to check for the title of the submission.
+     * Titles are compared after normalizing them, see {@link SubmissionTitle#normalize(String)}.
      *
      * @param submission a submission that we are trying to add
      * @return boolean which returns ture if there are no identical submissions
      */
-    public boolean checkDuplicateSubmissions(Submission submission) throws DeadlinePassedException, IllegalAccessException {
-
-        List<Submission> submissions = get(null, null,
-                submission.getTitle(), null, null, submission.getEventId(),
-                null).getBody();
-        return submissions.isEmpty();
+    public boolean checkDuplicateSubmissions(Submission submission) {
+        return !submissionTitleRepository.existsByEventIdAndNormalizedTitle(submission.getEventId(),
+                SubmissionTitle.normalize(submission.getTitle()));
     }
 }
 
@@ -0,0 +1,72 @@
+package nl.tudelft.sem.template.submission.services;
+
+import nl.tudelft.sem.template.model.ConflictsOfInterest;
+import nl.tudelft.sem.template.model.ConflictsOfInterestType;
+import nl.tudelft.sem.template.model.Submission;
+import nl.tudelft.sem.template.submission.models.SubmissionRow;
+import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SubmissionServiceUtils {
+    /**
+     * Maximum number of submissions whose collections are read with one query.
+     */
+    static final int BATCH_SIZE = 1000;
+
+    private SubmissionServiceUtils() {
+    }
+
+    /**
+     * Builds submissions from rows read by a projection query, with their authors, keywords, comments
+     * and conflicts of interest. Every collection is read for up to {@link #BATCH_SIZE} submissions
+     * with one query, and nothing is loaded into the persistence context.
+     *
+     * @param submissionRepository submission repository
+     * @param rows                 rows of the submissions
+     * @return submissions in the order of the rows
+     */
+    public static List<Submission> toSubmissions(SubmissionRepository submissionRepository, List<SubmissionRow> rows) {
+        Map<Long, Submission> submissions = new LinkedHashMap<>();
+        for (SubmissionRow row : rows) {
+            Submission submission = row.toSubmission();
+            submission.setKeywords(new ArrayList<>());
+            submission.setComments(new ArrayList<>());
+            submissions.put(row.getId(), submission);
+        }
+
+        List<Long> ids = new ArrayList<>(submissions.keySet());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            for (Object[] author : submissionRepository.findAuthorsOf(batch)) {
+                submissions.get((Long) author[0]).getAuthors().add((Long) author[1]);
+            }
+            for (Object[] keyword : submissionRepository.findKeywordsOf(batch)) {
+                submissions.get((Long) keyword[0]).getKeywords().add((String) keyword[1]);
+            }
+            for (Object[] comment : submissionRepository.findCommentsOf(batch)) {
+                submissions.get((Long) comment[0]).getComments().add((String) comment[1]);
+            }
+            for (Object[] userId : submissionRepository.findConflictUserIdsOf(batch)) {
+                conflictsOf(submissions.get((Long) userId[0])).getUserIds().add((Long) userId[1]);
+            }
+            for (Object[] type : submissionRepository.findConflictTypesOf(batch)) {
+                conflictsOf(submissions.get((Long) type[0])).getTypes().add((ConflictsOfInterestType) type[1]);
+            }
+        }
+        return new ArrayList<>(submissions.values());
+    }
+
+    private static ConflictsOfInterest conflictsOf(Submission submission) {
+        if (submission.getConflictsOfInterest() == null) {
+            ConflictsOfInterest conflicts = new ConflictsOfInterest();
+            conflicts.setUserIds(new ArrayList<>());
+            conflicts.setTypes(new ArrayList<>());
+            submission.setConflictsOfInterest(conflicts);
+        }
+        return submission.getConflictsOfInterest();
+    }
+}
@@ -0,0 +1,307 @@
+package nl.tudelft.sem.template.submission.functional;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.Fault;
+import nl.tudelft.sem.template.model.Comment;
+import nl.tudelft.sem.template.model.Role;
+import nl.tudelft.sem.template.model.Track;
+import nl.tudelft.sem.template.submission.authentication.AuthManager;
+import nl.tudelft.sem.template.submission.components.http.CircuitBreaker;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
+import nl.tudelft.sem.template.submission.components.http.ServiceUnavailableException;
+import nl.tudelft.sem.template.submission.configs.HttpClientProperties;
+import nl.tudelft.sem.template.submission.models.Attendee;
+import nl.tudelft.sem.template.submission.models.RequestType;
+import nl.tudelft.sem.template.submission.services.HttpRequestService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HttpRequestServiceTest {
+    private static WireMockServer wireMockServerUser;
+    private static WireMockServer wireMockServerReview;
+
+    private HttpRequestService httpRequestService;
+    private AuthManager authManager;
+
+    private static final String TRACK = "{\"id\":\"3\",\"event_id\":\"1\",\"submit_deadline\":\"2024-09-10T23:59:59\","
+            + "\"paper_type\":\"full-paper\",\"title\":\"\",\"description\":\"\","
+            + "\"review_deadline\":\"2024-09-10T23:59:59\"}";
+
+    @BeforeAll
+    static void startWireMock() {
+        wireMockServerUser = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8085));
+        wireMockServerReview = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8082));
+
+        wireMockServerUser.start();
+        wireMockServerReview.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMockServerUser.stop();
+        wireMockServerReview.stop();
+    }
+
+    @BeforeEach
+    void setup() {
+        wireMockServerUser.resetAll();
+        wireMockServerReview.resetAll();
+        authManager = mock(AuthManager.class);
+        httpRequestService = new HttpRequestService(authManager, new HttpClientProperties());
+
+        wireMockServerUser.stubFor(
+                WireMock.get("/track/3")
+                        .willReturn(aResponse()
+                                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                .withBody(TRACK)
+                        )
+        );
+    }
+
+    @AfterEach
+    void shutdown() {
+        httpRequestService.shutdown();
+    }
+
+    @Test
+    void testTrackIsFetchedOnce() {
+        Track first = httpRequestService.get("track/3", Track.class, RequestType.USER);
+        Track second = httpRequestService.get("track/3", Track.class, RequestType.USER);
+
+        assertEquals(1L, first.getEventId());
+        assertEquals(first, second);
+        wireMockServerUser.verify(1, getRequestedFor(urlEqualTo("/track/3")));
+        assertEquals(1, httpRequestService.getTrackCache().getHits());
+        assertEquals(1, httpRequestService.getSentRequests());
+    }
+
+    @Test
+    void testGetListReaderAsync() throws Exception {
+        wireMockServerUser.stubFor(
+                WireMock.get("/attendee/trackId=3")
+                        .willReturn(aResponse()
+                                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                .withBody("[{\"id\":\"0\",\"eventId\":\"1\",\"trackId\":\"3\","
+                                        + "\"role\":\"pc_chair\",\"userId\":\"7\"}]")
+                        )
+        );
+
+        List<Attendee> attendees = new ArrayList<>();
+        try (JsonArrayReader<Attendee> reader = httpRequestService.getListReaderAsync("attendee/trackId=3",
+                Attendee.class, RequestType.USER).get(5, TimeUnit.SECONDS)) {
+            reader.forEach(attendees::add);
+        }
+
+        assertEquals(List.of(new Attendee(0L, 7L, 1L, 3L, Role.PC_CHAIR)), attendees);
+    }
+
+    @Test
+    void testBadResponseIsNotCountedAsFailed() {
+        wireMockServerReview.stubFor(
+                WireMock.get("/comments/1/papers/2")
+                        .willReturn(aResponse().withStatus(500).withBody("not json"))
+        );
+
+        assertThrows(RuntimeException.class,
+                () -> httpRequestService.get("comments/1/papers/2", Track.class, RequestType.REVIEW));
+        assertEquals(0, httpRequestService.getFailedRequests());
+    }
+
+    @Test
+    void testBrokenConnectionIsCountedAsFailed() {
+        wireMockServerReview.stubFor(
+                WireMock.get("/comments/1/papers/2")
+                        .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER))
+        );
+
+        assertThrows(HttpRequestService.BadResponseException.class,
+                () -> httpRequestService.get("comments/1/papers/2", Track.class, RequestType.REVIEW));
+
+        assertEquals(1, httpRequestService.getFailedRequests());
+        assertEquals(0, httpRequestService.getHostLimiter().getActive("localhost:8082"));
+    }
+
+    @Test
+    void testTokenOfCallingThreadIsForwarded() throws Exception {
+        wireMockServerUser.stubFor(
+                WireMock.get("/user/byEmail/example@gmail.com")
+                        .willReturn(aResponse()
+                                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                .withBody("{\"id\":5,\"email\":\"example@gmail.com\"}")
+                        )
+        );
+        when(authManager.getToken()).thenReturn("token123");
+        CompletableFuture<Long> future = httpRequestService.getUserIdAsync("example@gmail.com");
+        when(authManager.getToken()).thenReturn("otherToken");
+        future.get(5, TimeUnit.SECONDS);
+
+        wireMockServerUser.verify(1, getRequestedFor(urlEqualTo("/user/byEmail/example@gmail.com"))
+                .withHeader("Authorization", equalTo("Bearer token123")));
+    }
+
+    @Test
+    void testOpenCircuitFailsFast() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setCircuitBreakerFailureThreshold(2);
+        HttpRequestService service = new HttpRequestService(authManager, properties);
+        wireMockServerReview.stubFor(
+                WireMock.get("/comments/1/papers/2")
+                        .willReturn(aResponse().withStatus(503))
+        );
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                assertThrows(RuntimeException.class,
+                        () -> service.getList("comments/1/papers/2", Comment[].class, RequestType.REVIEW));
+            }
+            assertThrows(ServiceUnavailableException.class,
+                    () -> service.getList("comments/1/papers/2", Comment[].class, RequestType.REVIEW));
+            CompletionException e = assertThrows(CompletionException.class,
+                    () -> service.getListReaderAsync("comments/1/papers/2", Comment.class, RequestType.REVIEW).join());
+            assertEquals(ServiceUnavailableException.class, e.getCause().getClass());
+        } finally {
+            service.shutdown();
+        }
+
+        wireMockServerReview.verify(2, getRequestedFor(urlEqualTo("/comments/1/papers/2")));
+        assertEquals(CircuitBreaker.State.OPEN, service.getCircuitBreaker(RequestType.REVIEW).getState());
+        assertEquals(CircuitBreaker.State.CLOSED, service.getCircuitBreaker(RequestType.USER).getState());
+    }
+
+    @Test
+    void testMalformedUrlDoesNotTakeProbe() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setCircuitBreakerFailureThreshold(1);
+        properties.setCircuitBreakerOpenDuration(Duration.ZERO);
+        HttpRequestService service = new HttpRequestService(authManager, properties);
+        wireMockServerUser.stubFor(
+                WireMock.get("/track/4")
+                        .willReturn(aResponse().withStatus(503))
+        );
+
+        try {
+            assertThrows(RuntimeException.class, () -> service.get("track/4", Track.class, RequestType.USER));
+            assertEquals(CircuitBreaker.State.OPEN, service.getCircuitBreaker(RequestType.USER).getState());
+
+            assertThrows(IllegalArgumentException.class, () -> service.getUserIdAsync("not|an|email"));
+            // the breaker still lets the probe through
+            service.get("track/3", Track.class, RequestType.USER);
+        } finally {
+            service.shutdown();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, service.getCircuitBreaker(RequestType.USER).getState());
+    }
+
+    @Test
+    void testOverloadDoesNotOpenCircuit() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setCircuitBreakerFailureThreshold(1);
+        properties.setMaxRequestsPerHost(1);
+        properties.setMaxQueuedRequestsPerHost(0);
+        HttpRequestService service = new HttpRequestService(authManager, properties);
+        wireMockServerUser.stubFor(
+                WireMock.get("/user/byEmail/slow@gmail.com")
+                        .willReturn(aResponse()
+                                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                .withBody("{\"id\":5,\"email\":\"slow@gmail.com\"}")
+                                .withFixedDelay(500))
+        );
+
+        try {
+            CompletableFuture<Long> slow = service.getUserIdAsync("slow@gmail.com");
+            CompletionException e = assertThrows(CompletionException.class,
+                    () -> service.getListReaderAsync("attendee/trackId=3", Attendee.class, RequestType.USER).join());
+            assertEquals(ServiceUnavailableException.class, e.getCause().getClass());
+            slow.get(5, TimeUnit.SECONDS);
+        } finally {
+            service.shutdown();
+        }
+
+        CircuitBreaker circuitBreaker = service.getCircuitBreaker(RequestType.USER);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getFailures());
+        assertEquals(0, service.getFailedRequests());
+    }
+
+    @Test
+    void testQueuedRequestDoesNotWaitForever() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setRequestTimeout(Duration.ofSeconds(1));
+        properties.setQueueTimeout(Duration.ofMillis(200));
+        properties.setMaxRequestsPerHost(1);
+        HttpRequestService service = new HttpRequestService(authManager, properties);
+        wireMockServerUser.stubFor(
+                WireMock.get(WireMock.urlMatching("/(user/byEmail/slow@gmail.com|track/4)"))
+                        .willReturn(aResponse()
+                                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                .withBody(TRACK)
+                                .withFixedDelay(3000))
+        );
+
+        try {
+            service.getUserIdAsync("slow@gmail.com");
+            // waits for the slow request to time out, is sent, and would wait another request timeout
+            long start = System.nanoTime();
+            assertThrows(ServiceUnavailableException.class,
+                    () -> service.get("track/4", Track.class, RequestType.USER));
+            assertTrue(System.nanoTime() - start < Duration.ofMillis(1900).toNanos());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testUserIdIsCached() throws Exception {
+        wireMockServerUser.stubFor(
+                WireMock.get("/user/byEmail/example@gmail.com")
+                        .willReturn(aResponse()
+                                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                .withBody("{\"id\":5,\"email\":\"example@gmail.com\"}")
+                        )
+        );
+
+        assertEquals(5L, httpRequestService.getUserIdAsync("example@gmail.com").get(5, TimeUnit.SECONDS));
+        assertEquals(5L, httpRequestService.getUserIdAsync("example@gmail.com").get(5, TimeUnit.SECONDS));
+        wireMockServerUser.verify(1, getRequestedFor(urlEqualTo("/user/byEmail/example@gmail.com")));
+    }
+
+    @Test
+    void testUnknownUserIsCached() {
+        wireMockServerUser.stubFor(
+                WireMock.get("/user/byEmail/unknown@gmail.com")
+                        .willReturn(aResponse().withStatus(404))
+        );
+
+        for (int i = 0; i < 2; i++) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> httpRequestService.getUserIdAsync("unknown@gmail.com").get(5, TimeUnit.SECONDS));
+            assertEquals(IllegalAccessException.class, e.getCause().getClass());
+        }
+        wireMockServerUser.verify(1, getRequestedFor(urlEqualTo("/user/byEmail/unknown@gmail.com")));
+    }
+}
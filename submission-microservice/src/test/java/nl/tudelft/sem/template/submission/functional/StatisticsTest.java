@@ -5,10 +5,17 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import nl.tudelft.sem.template.model.*;
 import nl.tudelft.sem.template.submission.authentication.AuthManager;
-import nl.tudelft.sem.template.submission.authentication.JwtTokenVerifier;
+import nl.tudelft.sem.template.submission.components.cache.RoleCache;
+import nl.tudelft.sem.template.submission.configs.HttpClientProperties;
 import nl.tudelft.sem.template.submission.controllers.StatsController;
+import nl.tudelft.sem.template.submission.models.EventStatistics;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.EventStatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
 import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
 import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
+import nl.tudelft.sem.template.submission.repositories.SubmissionTitleRepository;
 import nl.tudelft.sem.template.submission.services.HttpRequestService;
 import nl.tudelft.sem.template.submission.services.StatisticsService;
 import nl.tudelft.sem.template.submission.services.SubmissionService;
@@ -21,13 +28,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
@@ -36,7 +48,7 @@ import static org.mockito.Mockito.*;
 
 @SpringBootTest(classes = HttpRequestService.class)
 @ExtendWith(MockitoExtension.class)
-@ContextConfiguration(classes = {JwtTokenVerifier.class})
+@ContextConfiguration(classes = {AuthManager.class, HttpClientProperties.class})
 
 public class StatisticsTest {
     private static WireMockServer wireMockServerUser;
@@ -45,14 +57,18 @@ public class StatisticsTest {
     private SubmissionRepository submissionRepository;
     private SubmissionService submissionService;
     private StatisticsRepository statisticsRepository;
+    private KeywordCountRepository keywordCountRepository;
+    private EventStatisticsRepository eventStatisticsRepository;
+    private EventKeywordCountRepository eventKeywordCountRepository;
     private StatisticsService statisticsService;
     private StatsController statsController;
 
     @InjectMocks
     private HttpRequestService httpRequestService;
     @Mock
-    private JwtTokenVerifier jwtTokenVerifier;
     private AuthManager authManager;
+    @Spy
+    private HttpClientProperties httpClientProperties = new HttpClientProperties();
 
     @Captor
     private static ArgumentCaptor<Statistics> argumentCaptor;
@@ -81,15 +97,20 @@ public class StatisticsTest {
         // We only mock other microservices and repositories here
         submissionRepository = mock(SubmissionRepository.class);
         statisticsRepository = mock(StatisticsRepository.class);
-        authManager = mock(AuthManager.class);
+        keywordCountRepository = mock(KeywordCountRepository.class);
+        eventStatisticsRepository = mock(EventStatisticsRepository.class);
+        eventKeywordCountRepository = mock(EventKeywordCountRepository.class);
 
         // Initialize services without mocking them to test the entire system
+        RoleCache roleCache = new RoleCache();
         statisticsService = new StatisticsService(submissionRepository,
-                statisticsRepository, httpRequestService, authManager);
+                statisticsRepository, keywordCountRepository, eventStatisticsRepository, eventKeywordCountRepository,
+                httpRequestService, authManager, roleCache);
         submissionService = new SubmissionService(submissionRepository,
-                statisticsService, statisticsRepository,
-                httpRequestService, authManager);
-        statsController = new StatsController(statisticsService, statisticsRepository);
+                statisticsService, statisticsRepository, keywordCountRepository, eventStatisticsRepository,
+                eventKeywordCountRepository, mock(SubmissionTitleRepository.class), httpRequestService, authManager,
+                roleCache, mock(PlatformTransactionManager.class));
+        statsController = new StatsController(statisticsService);
 
         wireMockServerUser.resetAll();
         wireMockServerReview.resetAll();
@@ -211,32 +232,33 @@ public class StatisticsTest {
         expectedStats.setTotalSubmissions(1L);
         expectedStats.setOpen(1L);
         expectedStats.setAverageNumberOfAuthors(2L);
-        KeywordsCounts keywordsCounts = new KeywordsCounts();
-        keywordsCounts.setCounts(List.of(1L, 1L));
-        keywordsCounts.setKeywords(List.of("keyword1", "keyword2"));
-        expectedStats.setKeywordsCounts(keywordsCounts);
 
         // Verify that statistics was created and that it matches statistics for one submission
         submissionService.add(submission1);
+        statisticsService.flush();
         verify(statisticsRepository, times(1)).save(argumentCaptor.capture());
         Statistics stats1 = argumentCaptor.getValue();
         assertEquals(expectedStats, stats1);
+        verify(keywordCountRepository).increment(0L, "keyword1", 1L);
+        verify(keywordCountRepository).increment(0L, "keyword2", 1L);
 
         // Make repository return saved statistics for the same track id
         when(statisticsRepository.findById(0L)).thenReturn(Optional.of(stats1));
 
         // Verify that statistics was updated correctly
         submissionService.add(submission2);
+        statisticsService.flush();
         verify(statisticsRepository, times(2)).save(argumentCaptor.capture());
 
         expectedStats.setTotalSubmissions(2L);
         expectedStats.setOpen(2L);
         expectedStats.setAverageNumberOfAuthors(3L);
-        expectedStats.getKeywordsCounts().setCounts(List.of(1L, 2L, 2L));
-        expectedStats.getKeywordsCounts().setKeywords(List.of("keyword3", "keyword1", "keyword2"));
 
         Statistics stats2 = argumentCaptor.getValue();
         assertEquals(expectedStats, stats2);
+        verify(keywordCountRepository, times(2)).increment(0L, "keyword1", 1L);
+        verify(keywordCountRepository, times(2)).increment(0L, "keyword2", 1L);
+        verify(keywordCountRepository, times(1)).increment(0L, "keyword3", 1L);
     }
 
     /**
@@ -262,35 +284,6 @@ public class StatisticsTest {
                         )
         );
 
-        wireMockServerUser.stubFor(
-                WireMock.get("/track/eventId=1")
-                        .willReturn(aResponse()
-                                .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
-                                .withBody("""
-                                        [
-                                            {
-                                            "id": "0",
-                                            "title": "track 0",
-                                            "description": "description",
-                                            "submit_deadline": "2024-05-03T23:59:59",
-                                            "review_deadline": "2024-07-03T23:59:59",
-                                            "paper_type":"full-paper",
-                                            "event_id": "1"
-                                            },
-                                            {
-                                            "id": "1",
-                                            "title": "track 1",
-                                            "description": "description",
-                                            "submit_deadline": "2024-05-03T23:59:59",
-                                            "review_deadline": "2024-07-03T23:59:59",
-                                            "paper_type":"full-paper",
-                                            "event_id": "1"
-                                            }
-                                        ]
-                                        """)
-                        )
-        );
-
         wireMockServerUser.stubFor(
                 WireMock.get("/attendee/eventId=1&trackId=1&role=sub_reviewer")
                         .willReturn(aResponse()
@@ -350,39 +343,49 @@ public class StatisticsTest {
         expectedStats.setTotalSubmissions(1L);
         expectedStats.setOpen(1L);
         expectedStats.setAverageNumberOfAuthors(2L);
-        KeywordsCounts keywordsCounts = new KeywordsCounts();
-        keywordsCounts.setCounts(List.of(1L, 1L));
-        keywordsCounts.setKeywords(List.of("keyword1", "keyword2"));
-        expectedStats.setKeywordsCounts(keywordsCounts);
+
+        // The statistics of the event are kept in memory
+        Map<Long, EventStatistics> events = new HashMap<>();
+        when(eventStatisticsRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(events.get(invocation.<Long>getArgument(0))));
+        when(eventStatisticsRepository.save(any(EventStatistics.class))).thenAnswer(invocation -> {
+            EventStatistics event = invocation.getArgument(0);
+            events.put(event.getEventId(), event);
+            return event;
+        });
 
         // Two different statistics objects are crated, since tracks are different
         submissionService.add(submission1);
+        statisticsService.flush();
         verify(statisticsRepository, times(1)).save(argumentCaptor.capture());
         Statistics stats1 = argumentCaptor.getValue();
         assertEquals(expectedStats, stats1);
 
         when(statisticsRepository.findById(0L)).thenReturn(Optional.empty());
         submissionService.add(submission2);
+        statisticsService.flush();
         verify(statisticsRepository, times(2)).save(argumentCaptor.capture());
 
         expectedStats.setTotalSubmissions(1L);
         expectedStats.setId(0L);
         expectedStats.setOpen(1L);
         expectedStats.setAverageNumberOfAuthors(4L);
-        expectedStats.getKeywordsCounts().setCounts(List.of(1L, 1L, 1L));
-        expectedStats.getKeywordsCounts().setKeywords(List.of("keyword3", "keyword1", "keyword2"));
 
         Statistics stats2 = argumentCaptor.getValue();
         assertEquals(expectedStats, stats2);
 
-        when(statisticsRepository.findAllById(List.of(0L, 1L))).thenReturn(List.of(stats1, stats2));
+        when(eventKeywordCountRepository.topByEventId(1L, Pageable.unpaged())).thenReturn(List.of(
+                new KeywordTotal("keyword1", 2L),
+                new KeywordTotal("keyword2", 2L),
+                new KeywordTotal("keyword3", 1L)));
 
-        Statistics eventStats = statsController.trackOrEventStatisticsGet(1L).getBody();
+        Statistics eventStats = statsController.trackOrEventStatisticsGet(1L, null).getBody();
         eventStats.setId(expectedStats.getId());
         expectedStats.setOpen(2L);
         expectedStats.setTotalSubmissions(2L);
-        keywordsCounts.setCounts(List.of(1L, 2L, 2L));
-        keywordsCounts.setKeywords(List.of("keyword3", "keyword1", "keyword2"));
+        KeywordsCounts keywordsCounts = new KeywordsCounts();
+        keywordsCounts.setCounts(List.of(2L, 2L, 1L));
+        keywordsCounts.setKeywords(List.of("keyword1", "keyword2", "keyword3"));
         expectedStats.setKeywordsCounts(keywordsCounts);
         expectedStats.setAverageNumberOfAuthors(3L);
         assertEquals(expectedStats, eventStats);
@@ -422,17 +425,20 @@ public class StatisticsTest {
 
         // Verify that statistics updated correctly when deleting submission
         submissionService.delete(0L);
+        statisticsService.flush();
         verify(statisticsRepository, times(1)).save(argumentCaptor.capture());
 
         collectedStats.setAccepted(6L);
         collectedStats.setTotalSubmissions(9L);
         collectedStats.setAverageNumberOfAuthors(2L);
-        keywordsCounts.setCounts(List.of(17L, 20L, 9L, 11L));
-        keywordsCounts.setKeywords(List.of("keyword3", "keyword4", "keyword1", "keyword2"));
-        collectedStats.setKeywordsCounts(keywordsCounts);
+        collectedStats.setKeywordsCounts(null);
 
         Statistics updated = argumentCaptor.getValue();
         assertEquals(collectedStats, updated);
+        verify(keywordCountRepository).increment(0L, "keyword1", -1L);
+        verify(keywordCountRepository).increment(0L, "keyword2", -1L);
+        verify(keywordCountRepository).increment(0L, "keyword3", -1L);
+        verify(keywordCountRepository).deleteUnused(0L);
     }
 
 }
@@ -7,10 +7,16 @@ import nl.tudelft.sem.template.model.PaperType;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.model.SubmissionStatus;
 import nl.tudelft.sem.template.submission.authentication.AuthManager;
-import nl.tudelft.sem.template.submission.authentication.JwtTokenVerifier;
+import nl.tudelft.sem.template.submission.components.cache.RoleCache;
 import nl.tudelft.sem.template.submission.components.chain.DeadlinePassedException;
+import nl.tudelft.sem.template.submission.configs.HttpClientProperties;
+import nl.tudelft.sem.template.submission.models.SubmissionRow;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.EventStatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
 import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
 import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
+import nl.tudelft.sem.template.submission.repositories.SubmissionTitleRepository;
 import nl.tudelft.sem.template.submission.services.HttpRequestService;
 import nl.tudelft.sem.template.submission.services.StatisticsService;
 import nl.tudelft.sem.template.submission.services.SubmissionService;
@@ -23,10 +29,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -39,7 +47,7 @@ import static org.mockito.Mockito.*;
 
 @SpringBootTest(classes = HttpRequestService.class)
 @ExtendWith(MockitoExtension.class)
-@ContextConfiguration(classes = {JwtTokenVerifier.class})
+@ContextConfiguration(classes = {AuthManager.class, HttpClientProperties.class})
 public class SubmissionTest {
     private static WireMockServer wireMockServerAuth;
     private static WireMockServer wireMockServerUser;
@@ -47,12 +55,16 @@ public class SubmissionTest {
 
     private SubmissionRepository submissionRepository;
     private StatisticsRepository statisticsRepository;
+    private KeywordCountRepository keywordCountRepository;
+    private EventStatisticsRepository eventStatisticsRepository;
+    private EventKeywordCountRepository eventKeywordCountRepository;
     private StatisticsService statisticsService;
     @InjectMocks
     private HttpRequestService httpRequestService;
     @Mock
-    private JwtTokenVerifier jwtTokenVerifier;
     private AuthManager authManager;
+    @Spy
+    private HttpClientProperties httpClientProperties = new HttpClientProperties();
     private SubmissionService submissionService;
 
     @Captor
@@ -85,13 +97,18 @@ public class SubmissionTest {
     public void setup() {
         submissionRepository = mock(SubmissionRepository.class);
         statisticsRepository = mock(StatisticsRepository.class);
+        keywordCountRepository = mock(KeywordCountRepository.class);
+        eventStatisticsRepository = mock(EventStatisticsRepository.class);
+        eventKeywordCountRepository = mock(EventKeywordCountRepository.class);
+        RoleCache roleCache = new RoleCache();
         statisticsService = new StatisticsService(submissionRepository,
-                statisticsRepository, httpRequestService, authManager);
-        authManager = mock(AuthManager.class);
+                statisticsRepository, keywordCountRepository, eventStatisticsRepository, eventKeywordCountRepository,
+                httpRequestService, authManager, roleCache);
         submissionService = new SubmissionService(
                 submissionRepository, statisticsService,
-                statisticsRepository,
-                httpRequestService, authManager
+                statisticsRepository, keywordCountRepository, eventStatisticsRepository, eventKeywordCountRepository,
+                mock(SubmissionTitleRepository.class), httpRequestService, authManager, roleCache,
+                mock(PlatformTransactionManager.class)
         );
 
         submission = new Submission();
@@ -275,7 +292,12 @@ public class SubmissionTest {
         submission.setStatus(SubmissionStatus.UNDERREVIEW);
         submission.setType(PaperType.FULL_PAPER);
 
-        when(submissionRepository.findById(1L)).thenReturn(Optional.of(submission));
+        when(submissionRepository.findRowById(1L)).thenReturn(Optional.of(new SubmissionRow(1L,
+                submission.getSubmittedBy(), submission.getTitle(), null, submission.getAbstract(), null,
+                submission.getTrackId(), submission.getEventId(), submission.getType(), submission.getStatus(),
+                null, null)));
+        when(submissionRepository.findAuthorsOf(List.of(1L)))
+                .thenReturn(List.of(new Object[] {1L, 0L}, new Object[] {1L, 1L}));
         Submission result = submissionService.getById(1L).getBody();
         assertEquals(1, result.getComments().size());
     }
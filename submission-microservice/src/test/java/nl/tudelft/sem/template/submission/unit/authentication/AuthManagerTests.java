@@ -34,4 +34,32 @@ public class AuthManagerTests {
         // Assert
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    public void getTokenTest() {
+        // Arrange
+        var authenticationToken = new UsernamePasswordAuthenticationToken(
+                "user123",
+                "token123", List.of()
+        );
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+
+        // Act
+        String actual = authManager.getToken();
+
+        // Assert
+        assertThat(actual).isEqualTo("token123");
+    }
+
+    @Test
+    public void getTokenUnauthenticatedTest() {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(null);
+
+        // Act
+        String actual = authManager.getToken();
+
+        // Assert
+        assertThat(actual).isNull();
+    }
 }
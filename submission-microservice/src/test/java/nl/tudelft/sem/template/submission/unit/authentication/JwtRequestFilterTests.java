@@ -7,6 +7,7 @@ import static org.mockito.Mockito.when;
 
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
 import java.io.IOException;
 import java.util.stream.Stream;
 import javax.servlet.FilterChain;
@@ -61,8 +62,7 @@ public class JwtRequestFilterTests {
         String token = "randomtoken123";
         String user = "user123";
         when(mockRequest.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(mockJwtTokenVerifier.validateToken(token)).thenReturn(true);
-        when(mockJwtTokenVerifier.getNetIdFromToken(token)).thenReturn(user);
+        when(mockJwtTokenVerifier.verify(token)).thenReturn(Jwts.claims().setSubject(user));
 
         // Act
         jwtRequestFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
@@ -70,23 +70,23 @@ public class JwtRequestFilterTests {
         // Assert
         assertThat(SecurityContextHolder.getContext().getAuthentication().getName())
                 .isEqualTo(user);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getCredentials())
+                .isEqualTo(token);
     }
 
     @Test
-    public void invalidToken() throws ServletException, IOException {
+    public void tokenParsedOnce() throws ServletException, IOException {
         // Arrange
         String token = "randomtoken123";
-        String user = "user123";
         when(mockRequest.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(mockJwtTokenVerifier.validateToken(token)).thenReturn(false);
-        when(mockJwtTokenVerifier.getNetIdFromToken(token)).thenReturn(user);
+        when(mockJwtTokenVerifier.verify(token)).thenReturn(Jwts.claims().setSubject("user123"));
 
         // Act
         jwtRequestFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
 
         // Assert
-        assertThat(SecurityContextHolder.getContext().getAuthentication())
-                .isNull();
+        verify(mockJwtTokenVerifier).verify(token);
+        verifyNoMoreInteractions(mockJwtTokenVerifier);
     }
 
     /**
@@ -100,10 +100,8 @@ public class JwtRequestFilterTests {
             throws ServletException, IOException {
         // Arrange
         String token = "randomtoken123";
-        String user = "user123";
         when(mockRequest.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(mockJwtTokenVerifier.validateToken(token)).thenThrow(throwable);
-        when(mockJwtTokenVerifier.getNetIdFromToken(token)).thenReturn(user);
+        when(mockJwtTokenVerifier.verify(token)).thenThrow(throwable);
 
         // Act
         jwtRequestFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
@@ -141,8 +139,7 @@ public class JwtRequestFilterTests {
         String token = "randomtoken123";
         String user = "user123";
         when(mockRequest.getHeader("Authorization")).thenReturn("Bearer1 " + token);
-        when(mockJwtTokenVerifier.validateToken(token)).thenReturn(true);
-        when(mockJwtTokenVerifier.getNetIdFromToken(token)).thenReturn(user);
+        when(mockJwtTokenVerifier.verify(token)).thenReturn(Jwts.claims().setSubject(user));
 
         // Act
         jwtRequestFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
@@ -158,8 +155,7 @@ public class JwtRequestFilterTests {
         String token = "randomtoken123";
         String user = "user123";
         when(mockRequest.getHeader("Authorization")).thenReturn(token);
-        when(mockJwtTokenVerifier.validateToken(token)).thenReturn(true);
-        when(mockJwtTokenVerifier.getNetIdFromToken(token)).thenReturn(user);
+        when(mockJwtTokenVerifier.verify(token)).thenReturn(Jwts.claims().setSubject(user));
 
         // Act
         jwtRequestFilter.doFilterInternal(mockRequest, mockResponse, mockFilterChain);
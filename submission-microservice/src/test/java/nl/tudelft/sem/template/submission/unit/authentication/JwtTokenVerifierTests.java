@@ -3,6 +3,7 @@ package nl.tudelft.sem.template.submission.unit.authentication;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
@@ -93,6 +94,34 @@ public class JwtTokenVerifierTests {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    public void verifiedClaimsAreCached() {
+        // Arrange
+        String token = generateToken(secret, "user123", -10_000_000, 10_000_000);
+
+        // Act
+        Claims first = jwtTokenVerifier.verify(token);
+        Claims second = jwtTokenVerifier.verify(token);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(jwtTokenVerifier.getClaimsCache().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidTokenIsNotCached() {
+        // Arrange
+        String token = generateToken("incorrectSecret", "user123", -10_000_000, 10_000_000);
+
+        // Act
+        ThrowableAssert.ThrowingCallable action = () -> jwtTokenVerifier.verify(token);
+
+        // Assert
+        assertThatExceptionOfType(SignatureException.class)
+                .isThrownBy(action);
+        assertThat(jwtTokenVerifier.getClaimsCache().size()).isZero();
+    }
+
     private String generateToken(String jwtSecret, String netid, long issuanceOffset, long expirationOffset) {
         Map<String, Object> claims = new HashMap<>();
         return Jwts.builder().setClaims(claims).setSubject(netid)
@@ -0,0 +1,140 @@
+package nl.tudelft.sem.template.submission.unit.components.cache;
+
+import nl.tudelft.sem.template.submission.components.cache.ExpiringCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExpiringCacheTest {
+    private MutableClock clock;
+    private ExpiringCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        cache = new ExpiringCache<>(Duration.ofSeconds(10), 2, clock);
+    }
+
+    @Test
+    void testHitAfterLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("value", cache.get("key", () -> "value" + loads.getAndIncrement()).substring(0, 5));
+        assertEquals("value0", cache.get("key", () -> "value" + loads.getAndIncrement()));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testExpiredEntryIsReloaded() {
+        cache.put("key", "old");
+        clock.advance(Duration.ofSeconds(11));
+        assertNull(cache.getIfPresent("key"));
+        assertEquals("new", cache.get("key", () -> "new"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.getIfPresent("a");
+        cache.put("c", "3");
+        assertEquals(2, cache.size());
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("1", cache.getIfPresent("a"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testInvalidate() {
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.invalidate("a");
+        assertNull(cache.getIfPresent("a"));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals("value", cache.get("key", () -> "value"));
+    }
+
+    @Test
+    void testConcurrentLoadsAreDeduplicated() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executor.submit(() -> cache.get("key", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "value";
+            }));
+            loading.await(5, TimeUnit.SECONDS);
+            final Future<String> second = executor.submit(() -> cache.get("key", () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals("value", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package nl.tudelft.sem.template.submission.unit.components.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.tudelft.sem.template.model.Role;
+import nl.tudelft.sem.template.submission.components.cache.RoleCache;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
+import nl.tudelft.sem.template.submission.models.Attendee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RoleCacheTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RoleCache roleCache;
+
+    @BeforeEach
+    void setUp() {
+        roleCache = new RoleCache();
+    }
+
+    private JsonArrayReader<Attendee> reader(Attendee... attendees) throws Exception {
+        return new JsonArrayReader<>(objectMapper,
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(List.of(attendees))), Attendee.class);
+    }
+
+    @Test
+    void testTrackChairsLoadedInOnePass() throws Exception {
+        roleCache.loadTrackChairs(3L, reader(
+                new Attendee(1L, 7L, 1L, 3L, Role.ATTENDEE),
+                new Attendee(2L, 8L, 1L, 3L, Role.PC_CHAIR),
+                new Attendee(3L, 9L, 1L, 3L, Role.GENERAL_CHAIR),
+                new Attendee(4L, 8L, 1L, 3L, Role.GENERAL_CHAIR)));
+
+        assertEquals(Map.of(8L, Role.PC_CHAIR, 9L, Role.GENERAL_CHAIR), roleCache.getTrackChairs(3L));
+        assertNull(roleCache.getTrackChairs(4L));
+    }
+
+    @Test
+    void testSubReviewers() throws Exception {
+        roleCache.loadSubReviewers(1L, 3L, reader(new Attendee(1L, 7L, 1L, 3L, Role.SUB_REVIEWER)));
+
+        assertEquals(Map.of(7L, Role.SUB_REVIEWER), roleCache.getSubReviewers(1L, 3L));
+        assertNull(roleCache.getSubReviewers(2L, 3L));
+    }
+}
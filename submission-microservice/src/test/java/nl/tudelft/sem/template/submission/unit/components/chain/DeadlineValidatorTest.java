@@ -3,6 +3,7 @@ package nl.tudelft.sem.template.submission.unit.components.chain;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.submission.Application;
 import nl.tudelft.sem.template.submission.components.chain.DeadlineValidator;
+import nl.tudelft.sem.template.submission.components.chain.ValidationContext;
 import nl.tudelft.sem.template.submission.components.strategy.GeneralStrategy;
 import nl.tudelft.sem.template.submission.controllers.SubmissionController;
 import nl.tudelft.sem.template.submission.services.SubmissionService;
@@ -54,8 +55,9 @@ class DeadlineValidatorTest {
         GeneralStrategy nextStrategy = mock(GeneralStrategy.class);
         HttpMethod requestType = HttpMethod.PUT;
         when(nextStrategy.checkDeadline(14L)).thenReturn(true);
-        GeneralStrategy result = deadlineValidator.handle(nextStrategy,
-                123L, submission.getTrackId(), submission, requestType);
+        ValidationContext context = ValidationContext.forSubmission(requestType, submission);
+        context.setStrategy(nextStrategy);
+        GeneralStrategy result = deadlineValidator.handle(context);
 
         //assert
         assertEquals(nextStrategy, result);
@@ -68,10 +70,12 @@ class DeadlineValidatorTest {
         GeneralStrategy nextStrategy = mock(GeneralStrategy.class);
         HttpMethod requestType = HttpMethod.PUT;
         when(nextStrategy.checkDeadline(anyLong())).thenReturn(false);
+        ValidationContext context = ValidationContext.forSubmission(requestType, submission);
+        context.setStrategy(nextStrategy);
 
         // assert
         assertThrows(DeadlinePassedException.class, () ->
-                deadlineValidator.handle(nextStrategy, 123L, submission.getTrackId(), submission, requestType));
+                deadlineValidator.handle(context));
 
         verify(nextStrategy).checkDeadline(submission.getTrackId());
         verifyNoMoreInteractions(nextStrategy);
@@ -1,19 +1,27 @@
 package nl.tudelft.sem.template.submission.unit.components.chain;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import nl.tudelft.sem.template.model.Role;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.submission.Application;
 import nl.tudelft.sem.template.submission.authentication.AuthManager;
 import nl.tudelft.sem.template.submission.components.chain.UserValidator;
+import nl.tudelft.sem.template.submission.components.chain.ValidationContext;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
 import nl.tudelft.sem.template.submission.components.strategy.AttendeeStrategy;
 import nl.tudelft.sem.template.submission.components.strategy.GeneralStrategy;
+import nl.tudelft.sem.template.submission.components.strategy.PcChairStrategy;
 import nl.tudelft.sem.template.submission.components.strategy.SubmissionAuthorStrategy;
 import nl.tudelft.sem.template.submission.components.strategy.SubmissionReviewerStrategy;
 import nl.tudelft.sem.template.submission.controllers.SubmissionController;
 import nl.tudelft.sem.template.submission.models.Attendee;
 import nl.tudelft.sem.template.submission.models.RequestType;
+import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
 import nl.tudelft.sem.template.submission.services.HttpRequestService;
 import nl.tudelft.sem.template.submission.services.SubmissionService;
+import org.hibernate.Hibernate;
+import org.hibernate.collection.internal.PersistentBag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,12 +35,20 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.mock;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith({SpringExtension.class, MockitoExtension.class})
@@ -53,10 +69,11 @@ class UserValidatorTest {
     @Autowired
     @InjectMocks
     private UserValidator userValidator;
+    @Autowired
+    private SubmissionRepository submissionRepository;
 
     private Submission submission;
     private Long userId;
-    private GeneralStrategy nextStrategy;
 
     Long trackId;
     Long eventId;
@@ -70,12 +87,12 @@ class UserValidatorTest {
         submission.setEventId(eventId);
         submission.setAuthors(new ArrayList<>(Arrays.asList(1L, 2L)));
         userId = 123L;
-        nextStrategy = mock(GeneralStrategy.class);
-        userValidator.setNext(null);
         String email = "author@example.com";
-        when(httpRequestService.getAttribute("user/byEmail/"
-                + email, RequestType.USER, "id")).thenReturn(String.valueOf(userId));
+        when(httpRequestService.getUserIdAsync(email))
+                .thenReturn(CompletableFuture.completedFuture(userId));
         when(authManager.getEmail()).thenReturn(email);
+        when(httpRequestService.getListReaderAsync(anyString(), eq(Attendee.class), eq(RequestType.USER)))
+                .thenAnswer(invocation -> attendees(List.of()));
     }
     
     @Test
@@ -84,12 +101,12 @@ class UserValidatorTest {
         List<Attendee> attendeeList = new ArrayList<Attendee>();
         HttpMethod requestType = HttpMethod.PUT;
         attendeeList.add(a);
-        when(httpRequestService.getList("attendee/eventId=" + eventId + "&trackId=" + trackId
+        when(httpRequestService.getListReaderAsync("attendee/eventId=" + eventId + "&trackId=" + trackId
                         + "&role=sub_reviewer",
-                Attendee[].class, RequestType.USER)).thenReturn(attendeeList);
+                Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(attendeeList));
 
-        GeneralStrategy result = userValidator.handle(nextStrategy,
-                userId, null, submission, requestType);
+        GeneralStrategy result = userValidator.handle(new ValidationContext(requestType, null, submission));
         assertEquals(result.getClass(), SubmissionReviewerStrategy.class);
     }
 
@@ -103,14 +120,31 @@ class UserValidatorTest {
         Attendee a = new Attendee(userId, 1L, 2L, 3L, Role.SUB_REVIEWER);
         List<Attendee> attendeeList = new ArrayList<Attendee>();
         attendeeList.add(a);
-        when(httpRequestService.getList("attendee/eventId=" + eventId + "&trackId=" + trackId
+        when(httpRequestService.getListReaderAsync("attendee/eventId=" + eventId + "&trackId=" + trackId
                         + "&role=sub_reviewer",
-                Attendee[].class, RequestType.USER)).thenReturn(attendeeList);
-        GeneralStrategy result = userValidator.handle(nextStrategy,
-                userId, submission.getTrackId(), submission, HttpMethod.PUT);
+                Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(attendeeList));
+        GeneralStrategy result = userValidator.handle(
+                new ValidationContext(HttpMethod.PUT, submission.getTrackId(), submission));
         assertEquals(result.getClass(), SubmissionAuthorStrategy.class);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAuthorOfStoredSubmission() throws Exception {
+        submission.setId(5L);
+        submission.setTrackId(null);
+        submission.setAuthors(new ArrayList<>(Arrays.asList(userId)));
+        submissionRepository.save(submission);
+        // the authors of a submission read from the database are not loaded until they are used
+        submission.setAuthors(new PersistentBag());
+
+        GeneralStrategy result = userValidator.handle(new ValidationContext(HttpMethod.PUT, null, submission));
+
+        assertEquals(SubmissionAuthorStrategy.class, result.getClass());
+        assertFalse(Hibernate.isInitialized(submission.getAuthors()));
+    }
+
     @Test
     void checkPermissionsMultipleAttendees() throws Exception {
         Attendee a = new Attendee(99L, 1L, 2L, 3L, Role.SUB_REVIEWER);
@@ -121,16 +155,55 @@ class UserValidatorTest {
         attendeeList.add(a);
         attendeeList.add(b);
         attendeeList.add(c);
-        when(httpRequestService.getList("attendee/eventId=" + eventId + "&trackId=" + trackId
+        when(httpRequestService.getListReaderAsync("attendee/eventId=" + eventId + "&trackId=" + trackId
                         + "&role=sub_reviewer",
-                Attendee[].class, RequestType.USER)).thenReturn(attendeeList);
+                Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(attendeeList));
 
-        GeneralStrategy result = userValidator.handle(nextStrategy,
-                userId, submission.getTrackId(), submission, HttpMethod.GET);
+        GeneralStrategy result = userValidator.handle(
+                new ValidationContext(HttpMethod.GET, submission.getTrackId(), submission));
         assertEquals(result.getClass(), AttendeeStrategy.class);
 
     }
 
+    @Test
+    void testPcChairResolvedFromTrackAttendees() throws Exception {
+        Attendee chair = new Attendee(1L, userId, eventId, trackId, Role.PC_CHAIR);
+        when(httpRequestService.getListReaderAsync("attendee/trackId=" + trackId, Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(List.of(chair)));
 
-}
+        GeneralStrategy result = userValidator.handle(new ValidationContext(HttpMethod.GET, trackId, null));
+        assertEquals(PcChairStrategy.class, result.getClass());
+    }
 
+    @Test
+    void testPostDoesNotFetchAttendees() throws Exception {
+        ValidationContext context = ValidationContext.forSubmission(HttpMethod.POST, submission);
+        GeneralStrategy result = userValidator.handle(context);
+        assertEquals(SubmissionAuthorStrategy.class, result.getClass());
+        assertEquals(result, context.getStrategy());
+        assertEquals(userId, context.getUserId());
+        verify(httpRequestService, never()).getListReaderAsync(anyString(), eq(Attendee.class), any());
+    }
+
+    @Test
+    void testRolesOfTrackAreCached() throws Exception {
+        Attendee chair = new Attendee(1L, userId, eventId, trackId, Role.PC_CHAIR);
+        when(httpRequestService.getListReaderAsync("attendee/trackId=" + trackId, Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(List.of(chair)));
+
+        userValidator.handle(new ValidationContext(HttpMethod.GET, trackId, null));
+        GeneralStrategy result = userValidator.handle(new ValidationContext(HttpMethod.GET, trackId, null));
+
+        assertEquals(PcChairStrategy.class, result.getClass());
+        verify(httpRequestService, times(1))
+                .getListReaderAsync("attendee/trackId=" + trackId, Attendee.class, RequestType.USER);
+    }
+
+    private static CompletableFuture<JsonArrayReader<Attendee>> attendees(List<Attendee> attendees)
+            throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return CompletableFuture.completedFuture(new JsonArrayReader<>(objectMapper,
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(attendees)), Attendee.class));
+    }
+}
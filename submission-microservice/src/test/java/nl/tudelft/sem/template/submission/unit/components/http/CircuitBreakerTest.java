@@ -0,0 +1,115 @@
+package nl.tudelft.sem.template.submission.unit.components.http;
+
+import nl.tudelft.sem.template.submission.components.http.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private MutableClock clock;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        circuitBreaker = new CircuitBreaker(2, Duration.ofSeconds(10), clock);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onFailure();
+        }
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        fail(1);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(1, circuitBreaker.getRejected());
+        assertEquals(1, circuitBreaker.getTimesOpened());
+    }
+
+    @Test
+    void testSuccessResetsFailures() {
+        fail(1);
+        circuitBreaker.tryAcquire();
+        circuitBreaker.onSuccess();
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testSingleProbeWhenHalfOpen() {
+        fail(2);
+        clock.advance(Duration.ofSeconds(10));
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void testFailedProbeReopens() {
+        fail(2);
+        clock.advance(Duration.ofSeconds(10));
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(2, circuitBreaker.getTimesOpened());
+    }
+
+    @Test
+    void testReleasedProbeLetsNextRequestThrough() {
+        fail(2);
+        clock.advance(Duration.ofSeconds(10));
+
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.release();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(2, circuitBreaker.getFailures());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package nl.tudelft.sem.template.submission.unit.components.http;
+
+import nl.tudelft.sem.template.submission.components.http.HostConcurrencyLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostConcurrencyLimiterTest {
+    private HostConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new HostConcurrencyLimiter(1, 1);
+    }
+
+    @Test
+    void testRequestAboveLimitIsQueued() throws Exception {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> firstResult = limiter.submit("users", () -> first);
+        CompletableFuture<String> secondResult = limiter.submit("users", () -> CompletableFuture.completedFuture("2"));
+
+        assertFalse(secondResult.isDone());
+        assertEquals(1, limiter.getActive("users"));
+        assertEquals(1, limiter.getQueued("users"));
+
+        first.complete("1");
+
+        assertEquals("1", firstResult.get());
+        assertEquals("2", secondResult.get());
+        assertEquals(0, limiter.getActive("users"));
+        assertEquals(0, limiter.getQueued("users"));
+    }
+
+    @Test
+    void testHostsAreLimitedSeparately() {
+        limiter.submit("users", CompletableFuture::new);
+        CompletableFuture<String> review = limiter.submit("review", () -> CompletableFuture.completedFuture("ok"));
+
+        assertTrue(review.isDone());
+        assertEquals(1, limiter.getActive("users"));
+    }
+
+    @Test
+    void testFailedRequestReleasesSlot() throws Exception {
+        CompletableFuture<String> failed = limiter.submit("users", () -> {
+            throw new IllegalStateException();
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+        assertEquals(IllegalStateException.class, e.getCause().getClass());
+        assertEquals("ok", limiter.submit("users", () -> CompletableFuture.completedFuture("ok")).get());
+    }
+
+    @Test
+    void testRequestIsRejectedWhenQueueIsFull() {
+        limiter.submit("users", CompletableFuture::new);
+        limiter.submit("users", CompletableFuture::new);
+        CompletableFuture<String> rejected = limiter.submit("users", CompletableFuture::new);
+
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertEquals(RejectedExecutionException.class, e.getCause().getClass());
+        assertEquals(1, limiter.getQueued("users"));
+    }
+}
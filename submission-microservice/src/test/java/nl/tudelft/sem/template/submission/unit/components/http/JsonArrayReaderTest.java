@@ -0,0 +1,70 @@
+package nl.tudelft.sem.template.submission.unit.components.http;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.tudelft.sem.template.model.Role;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
+import nl.tudelft.sem.template.submission.models.Attendee;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonArrayReaderTest {
+    private static final String ATTENDEES = "[{\"id\":1,\"userId\":7,\"eventId\":1,\"trackId\":3,\"role\":\"attendee\"},"
+            + "{\"id\":2,\"userId\":8,\"eventId\":1,\"trackId\":3,\"role\":\"pc_chair\"},"
+            + "{\"id\":3,\"userId\":9,\"eventId\":1,\"trackId\":3,\"role\":\"general_chair\"}]";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonArrayReader<Attendee> reader(String json) {
+        InputStream inputStream = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        return new JsonArrayReader<>(objectMapper, inputStream, Attendee.class);
+    }
+
+    @Test
+    void testVisitsAllElements() throws Exception {
+        List<Attendee> visited = new ArrayList<>();
+        try (JsonArrayReader<Attendee> reader = reader(ATTENDEES)) {
+            assertTrue(reader.forEach(visited::add));
+        }
+
+        assertEquals(List.of(new Attendee(1L, 7L, 1L, 3L, Role.ATTENDEE),
+                new Attendee(2L, 8L, 1L, 3L, Role.PC_CHAIR),
+                new Attendee(3L, 9L, 1L, 3L, Role.GENERAL_CHAIR)), visited);
+    }
+
+    @Test
+    void testForEachStopsWhenAsked() throws Exception {
+        // everything after the element the visitor stops at is malformed, so reading it would fail
+        String json = ATTENDEES.substring(0, ATTENDEES.indexOf("},") + 2)
+                + "{\"id\":2,\"userId\":8,\"role\":\"pc_chair\"}, not json";
+        List<Long> visited = new ArrayList<>();
+        try (JsonArrayReader<Attendee> reader = reader(json)) {
+            assertFalse(reader.forEach(a -> visited.add(a.getUserId()) && a.getUserId() != 8L));
+        }
+        assertEquals(List.of(7L, 8L), visited);
+    }
+
+    @Test
+    void testEmptyArray() throws Exception {
+        try (JsonArrayReader<Attendee> reader = reader("[]")) {
+            assertTrue(reader.forEach(a -> false));
+        }
+    }
+
+    @Test
+    void testNotAnArray() throws Exception {
+        try (JsonArrayReader<Attendee> reader = reader("{\"id\":1}")) {
+            assertThrows(JsonParseException.class, () -> reader.forEach(a -> true));
+        }
+    }
+}
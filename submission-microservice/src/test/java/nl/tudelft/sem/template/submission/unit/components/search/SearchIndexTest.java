@@ -0,0 +1,51 @@
+package nl.tudelft.sem.template.submission.unit.components.search;
+
+import nl.tudelft.sem.template.submission.components.search.SearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTest {
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new SearchIndex();
+        searchIndex.index(1L, "Scheduling jobs", "We schedule jobs on graph processing clusters.");
+        searchIndex.index(2L, "Graph neural networks", "A survey of neural networks on graphs.");
+        searchIndex.index(3L, "Compilers", "Register allocation by graph coloring.");
+    }
+
+    @Test
+    void testRanksByRelevance() {
+        // the title counts more than the abstract, and "neural" makes the second submission more relevant;
+        // the third submission is shorter than the first, so its one match counts more
+        assertEquals(List.of(2L, 3L, 1L), searchIndex.search("neural graphs"));
+        assertEquals(List.of(1L), searchIndex.search("scheduled"));
+        assertEquals(List.of(), searchIndex.search("quantum"));
+        assertEquals(List.of(), searchIndex.search("the of"));
+    }
+
+    @Test
+    void testEquallyRelevantOrderedById() {
+        searchIndex.index(5L, "Compilers", "Register allocation by graph coloring.");
+
+        assertEquals(List.of(3L, 5L), searchIndex.search("compilers"));
+    }
+
+    @Test
+    void testReplaceAndRemove() {
+        searchIndex.index(3L, "Quantum compilers", null);
+        assertEquals(List.of(3L), searchIndex.search("quantum"));
+        assertEquals(List.of(), searchIndex.search("coloring"));
+
+        searchIndex.remove(3L);
+        searchIndex.remove(4L);
+        assertEquals(List.of(), searchIndex.search("quantum"));
+        assertEquals(List.of(2L, 1L), searchIndex.search("graph"));
+        assertEquals(2, searchIndex.size());
+    }
+}
@@ -0,0 +1,31 @@
+package nl.tudelft.sem.template.submission.unit.components.search;
+
+import nl.tudelft.sem.template.submission.components.search.TextAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextAnalyzerTest {
+    @Test
+    void testSplitsAndLowerCases() {
+        assertEquals(List.of("graph", "neural", "network", "gnn"),
+                TextAnalyzer.terms("Graph Neural-Networks (GNN)"));
+    }
+
+    @Test
+    void testRemovesStopWordsAndAccents() {
+        assertEquals(List.of("study", "naiv", "cafe"), TextAnalyzer.terms("A study of the naïve café"));
+        assertEquals(List.of(), TextAnalyzer.terms(null));
+    }
+
+    @Test
+    void testStemsInflections() {
+        assertEquals(List.of("network", "network", "network", "network"),
+                TextAnalyzer.terms("network networks networking networked"));
+        assertEquals(List.of("study", "study", "run", "class", "analysis", "bus"),
+                TextAnalyzer.terms("studies studied running classes analysis bus"));
+        assertEquals(List.of("schedul", "schedul", "schedul"), TextAnalyzer.terms("schedule scheduled scheduling"));
+    }
+}
@@ -0,0 +1,102 @@
+package nl.tudelft.sem.template.submission.unit.components.similarity;
+
+import nl.tudelft.sem.template.model.SimilarSubmission;
+import nl.tudelft.sem.template.submission.components.similarity.LshIndex;
+import nl.tudelft.sem.template.submission.components.similarity.MinHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LshIndexTest {
+    private static final String COPY = MinHasherTest.PAPER.replace("two hundred", "three hundred");
+    private static final String OTHER = "Register allocation by graph coloring is slow for large functions, "
+            + "so we propose a linear scan allocator that spills the intervals ending last and compare "
+            + "the quality of the generated code on the standard benchmarks.";
+
+    private LshIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LshIndex();
+        index.add(1L, 10L, MinHasher.signature(MinHasherTest.PAPER));
+        index.add(2L, 10L, MinHasher.signature(OTHER));
+        index.add(3L, 10L, MinHasher.signature(COPY));
+        index.add(4L, 11L, MinHasher.signature(MinHasherTest.PAPER));
+    }
+
+    private static List<Long> ids(List<SimilarSubmission> similar) {
+        return similar.stream().map(SimilarSubmission::getSubmissionId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testFindsNearDuplicatesInSameEvent() {
+        assertEquals(List.of(3L), ids(index.findSimilar(1L)));
+        assertEquals(List.of(1L), ids(index.findSimilar(3L)));
+        assertEquals(List.of(), ids(index.findSimilar(2L)));
+        assertEquals(List.of(), ids(index.findSimilar(4L)));
+        assertEquals(List.of(), ids(index.findSimilar(5L)));
+    }
+
+    @Test
+    void testFindsNearDuplicatesOfNewPaper() {
+        List<SimilarSubmission> similar = index.findSimilar(10L, MinHasher.signature(MinHasherTest.PAPER));
+
+        assertEquals(List.of(1L, 3L), ids(similar));
+        assertEquals(1.0, similar.get(0).getSimilarity());
+    }
+
+    @Test
+    void testAddAndFindSimilar() {
+        List<SimilarSubmission> similar = index.addAndFindSimilar(5L, 10L, MinHasher.signature(MinHasherTest.PAPER));
+
+        assertEquals(List.of(1L, 3L), ids(similar));
+        assertEquals(List.of(5L, 3L), ids(index.findSimilar(1L)));
+        // adding again does not find the paper itself
+        assertEquals(List.of(1L, 3L), ids(index.addAndFindSimilar(5L, 10L, MinHasher.signature(MinHasherTest.PAPER))));
+    }
+
+    @Test
+    void testConcurrentNearDuplicatesFindEachOther() throws Exception {
+        long[] signature = MinHasher.signature(COPY);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (long eventId = 100; eventId < 300; eventId++) {
+                long event = eventId;
+                CountDownLatch start = new CountDownLatch(1);
+                Future<List<SimilarSubmission>> first = executor.submit(() -> {
+                    start.await();
+                    return index.addAndFindSimilar(2 * event, event, signature);
+                });
+                Future<List<SimilarSubmission>> second = executor.submit(() -> {
+                    start.await();
+                    return index.addAndFindSimilar(2 * event + 1, event, signature);
+                });
+                start.countDown();
+
+                assertEquals(1, first.get(5, TimeUnit.SECONDS).size() + second.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testChangeEventAndRemove() {
+        index.changeEvent(4L, 10L);
+        assertEquals(List.of(4L, 3L), ids(index.findSimilar(1L)));
+
+        index.remove(4L);
+        index.remove(3L);
+        assertEquals(List.of(), ids(index.findSimilar(1L)));
+        assertEquals(List.of(), ids(index.findSimilar(11L, MinHasher.signature(MinHasherTest.PAPER))));
+    }
+}
@@ -0,0 +1,40 @@
+package nl.tudelft.sem.template.submission.unit.components.similarity;
+
+import nl.tudelft.sem.template.submission.components.similarity.MinHasher;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHasherTest {
+    static final String PAPER = "We present a scheduler for data processing jobs that places every task on the "
+            + "machine holding most of its input, and we show on a cluster of two hundred machines that this "
+            + "halves the time spent reading remote data while keeping the cluster fully utilized.";
+
+    @Test
+    void testFormattingDoesNotMatter() {
+        String reformatted = PAPER.toUpperCase().replace(" ", "\n  ").replace(",", " ;");
+
+        assertArrayEquals(MinHasher.signature(PAPER), MinHasher.signature(reformatted));
+    }
+
+    @Test
+    void testEstimatesSimilarity() {
+        // the last sentence part is rewritten, most five word sequences are still shared
+        String edited = PAPER.replace("while keeping the cluster fully utilized", "without idle machines");
+        double similarity = MinHasher.similarity(MinHasher.signature(PAPER), MinHasher.signature(edited));
+        assertTrue(similarity > 0.6 && similarity < 0.95, "similarity " + similarity);
+
+        double unrelated = MinHasher.similarity(MinHasher.signature(PAPER),
+                MinHasher.signature("Register allocation by graph coloring for compilers of functional languages."));
+        assertTrue(unrelated < 0.1, "similarity " + unrelated);
+    }
+
+    @Test
+    void testShortAndEmptyTexts() {
+        assertEquals(1.0, MinHasher.similarity(MinHasher.signature("Two words"), MinHasher.signature("two WORDS")));
+        assertNull(MinHasher.signature(" .,- "));
+    }
+}
@@ -0,0 +1,77 @@
+package nl.tudelft.sem.template.submission.unit.components.statistics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.tudelft.sem.template.model.Statistics;
+import nl.tudelft.sem.template.submission.components.statistics.JsonLinesInputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonLinesInputStreamTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> requestedAfter = new ArrayList<>();
+
+    private static Statistics statistics(long id) {
+        Statistics statistics = new Statistics();
+        statistics.setId(id);
+        statistics.setTotalSubmissions(id * 10);
+        return statistics;
+    }
+
+    /**
+     * Pages of two tracks, with ids 1 to 5.
+     */
+    private List<Statistics> nextPage(Statistics last) {
+        long after = last == null ? 0L : last.getId();
+        requestedAfter.add(after);
+        List<Statistics> page = new ArrayList<>();
+        for (long id = after + 1; id <= Math.min(after + 2, 5L); id++) {
+            page.add(statistics(id));
+        }
+        return page;
+    }
+
+    private List<Statistics> readLines(InputStream inputStream) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            List<Statistics> statistics = new ArrayList<>();
+            for (String line : reader.lines().collect(Collectors.toList())) {
+                statistics.add(objectMapper.readValue(line, Statistics.class));
+            }
+            return statistics;
+        }
+    }
+
+    @Test
+    void testWritesEveryElementOnItsOwnLine() throws Exception {
+        List<Statistics> read = readLines(new JsonLinesInputStream<>(objectMapper, this::nextPage));
+
+        assertEquals(List.of(statistics(1L), statistics(2L), statistics(3L), statistics(4L), statistics(5L)), read);
+        assertEquals(List.of(0L, 2L, 4L, 5L), requestedAfter);
+    }
+
+    @Test
+    void testLoadsPagesOnlyWhenRead() throws Exception {
+        InputStream inputStream = new JsonLinesInputStream<>(objectMapper, this::nextPage);
+        assertTrue(requestedAfter.isEmpty());
+
+        assertEquals('{', inputStream.read());
+        assertEquals(List.of(0L), requestedAfter);
+    }
+
+    @Test
+    void testEmptyFirstPage() throws Exception {
+        InputStream inputStream = new JsonLinesInputStream<Statistics>(objectMapper, last -> List.of());
+
+        assertEquals(-1, inputStream.read());
+        assertEquals(-1, inputStream.read(new byte[8], 0, 8));
+    }
+}
@@ -0,0 +1,357 @@
+package nl.tudelft.sem.template.submission.unit.components.statistics;
+
+import nl.tudelft.sem.template.model.Statistics;
+import nl.tudelft.sem.template.model.Submission;
+import nl.tudelft.sem.template.model.SubmissionStatus;
+import nl.tudelft.sem.template.submission.components.statistics.StatisticsAggregator;
+import nl.tudelft.sem.template.submission.models.EventKeywordCount;
+import nl.tudelft.sem.template.submission.models.EventStatistics;
+import nl.tudelft.sem.template.submission.models.KeywordCount;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
+import nl.tudelft.sem.template.submission.models.TrackEvent;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.EventStatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class StatisticsAggregatorTest {
+    private StatisticsRepository statisticsRepository;
+    private KeywordCountRepository keywordCountRepository;
+    private EventStatisticsRepository eventStatisticsRepository;
+    private EventKeywordCountRepository eventKeywordCountRepository;
+    private StatisticsAggregator aggregator;
+    private Submission submission;
+
+    @BeforeEach
+    void setUp() {
+        statisticsRepository = mock(StatisticsRepository.class);
+        when(statisticsRepository.findById(any())).thenReturn(Optional.empty());
+        keywordCountRepository = mock(KeywordCountRepository.class);
+        eventStatisticsRepository = mock(EventStatisticsRepository.class);
+        when(eventStatisticsRepository.findById(any())).thenReturn(Optional.empty());
+        eventKeywordCountRepository = mock(EventKeywordCountRepository.class);
+        aggregator = new StatisticsAggregator(statisticsRepository, keywordCountRepository, eventStatisticsRepository,
+                eventKeywordCountRepository);
+
+        submission = new Submission();
+        submission.setTrackId(3L);
+        submission.setEventId(5L);
+        submission.setStatus(SubmissionStatus.OPEN);
+        submission.setAuthors(List.of(1L, 2L));
+        submission.setKeywords(List.of("keyword1"));
+    }
+
+    private Statistics flushAndCapture() {
+        ArgumentCaptor<Statistics> captor = ArgumentCaptor.forClass(Statistics.class);
+        aggregator.flush();
+        verify(statisticsRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void testChangesAreCountedUntilFlush() {
+        aggregator.add(submission);
+        aggregator.add(submission);
+
+        assertTrue(aggregator.hasPendingChanges());
+        verify(statisticsRepository, never()).save(any());
+
+        Statistics saved = flushAndCapture();
+        assertEquals(3L, saved.getId());
+        assertEquals(2L, saved.getTotalSubmissions());
+        assertEquals(2L, saved.getOpen());
+        assertEquals(2L, saved.getAverageNumberOfAuthors());
+        verify(keywordCountRepository).increment(3L, "keyword1", 2L);
+        assertFalse(aggregator.hasPendingChanges());
+    }
+
+    @Test
+    void testRolledBackChangesAreNotCounted() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            aggregator.add(submission);
+            aggregator.update(submission, new Submission());
+            assertFalse(aggregator.hasPendingChanges());
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(aggregator.hasPendingChanges());
+        aggregator.flush();
+        verifyNoInteractions(statisticsRepository, keywordCountRepository, eventStatisticsRepository,
+                eventKeywordCountRepository);
+    }
+
+    @Test
+    void testChangesAreCountedOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            aggregator.add(submission);
+            assertFalse(aggregator.hasPendingChanges());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(aggregator.hasPendingChanges());
+        assertEquals(1L, flushAndCapture().getTotalSubmissions());
+    }
+
+    @Test
+    void testNewKeywordIsInserted() {
+        when(keywordCountRepository.increment(3L, "keyword1", 1L)).thenReturn(0);
+        aggregator.add(submission);
+        aggregator.flush();
+
+        ArgumentCaptor<KeywordCount> captor = ArgumentCaptor.forClass(KeywordCount.class);
+        verify(keywordCountRepository).save(captor.capture());
+        assertEquals(3L, captor.getValue().getTrackId());
+        assertEquals("keyword1", captor.getValue().getKeyword());
+        assertEquals(5L, captor.getValue().getEventId());
+        assertEquals(1L, captor.getValue().getOccurrences());
+    }
+
+    @Test
+    void testExistingKeywordIsIncremented() {
+        when(keywordCountRepository.increment(3L, "keyword1", 1L)).thenReturn(1);
+        aggregator.add(submission);
+        aggregator.flush();
+
+        verify(keywordCountRepository, never()).save(any());
+        verify(keywordCountRepository, never()).deleteUnused(3L);
+    }
+
+    @Test
+    void testUnusedKeywordsAreRemoved() {
+        when(keywordCountRepository.increment(3L, "keyword1", -1L)).thenReturn(1);
+        aggregator.remove(submission);
+        aggregator.flush();
+
+        verify(keywordCountRepository).deleteUnused(3L);
+    }
+
+    @Test
+    void testFailedKeywordUpdateIsRetried() {
+        when(keywordCountRepository.increment(3L, "keyword1", 1L))
+                .thenThrow(new IllegalStateException()).thenReturn(1);
+        aggregator.add(submission);
+
+        aggregator.flush();
+        assertTrue(aggregator.hasPendingChanges());
+
+        aggregator.flush();
+        assertFalse(aggregator.hasPendingChanges());
+        verify(keywordCountRepository, times(2)).increment(3L, "keyword1", 1L);
+        // the submission itself is counted only once
+        verify(statisticsRepository, times(1)).save(any());
+    }
+
+    @Test
+    void testChangesCancellingOutAreNotSaved() {
+        aggregator.add(submission);
+        aggregator.remove(submission);
+
+        aggregator.flush();
+
+        verify(statisticsRepository, never()).save(any());
+        verifyNoInteractions(keywordCountRepository);
+    }
+
+    @Test
+    void testLastSubmissionRemoved() {
+        Statistics statistics = new Statistics();
+        statistics.setId(3L);
+        statistics.setTotalSubmissions(1L);
+        statistics.setOpen(1L);
+        statistics.setAverageNumberOfAuthors(2L);
+        when(statisticsRepository.findById(3L)).thenReturn(Optional.of(statistics));
+
+        aggregator.remove(submission);
+        Statistics saved = flushAndCapture();
+
+        assertEquals(0L, saved.getTotalSubmissions());
+        assertEquals(0L, saved.getOpen());
+        assertEquals(0L, saved.getAverageNumberOfAuthors());
+    }
+
+    @Test
+    void testFailedSaveIsRetried() {
+        when(statisticsRepository.save(any())).thenThrow(new IllegalStateException()).thenReturn(null);
+        aggregator.add(submission);
+
+        aggregator.flush();
+        assertTrue(aggregator.hasPendingChanges());
+
+        aggregator.flush();
+        assertFalse(aggregator.hasPendingChanges());
+        verify(statisticsRepository, times(2)).save(any());
+    }
+
+    @Test
+    void testEventStatisticsChangeWithTrack() {
+        Statistics statistics = new Statistics();
+        statistics.setId(3L);
+        statistics.setTotalSubmissions(2L);
+        statistics.setAccepted(2L);
+        statistics.setAverageNumberOfAuthors(3L);
+        when(statisticsRepository.findById(3L)).thenReturn(Optional.of(statistics));
+        EventStatistics event = new EventStatistics(5L);
+        event.setTotalSubmissions(10L);
+        event.setAccepted(10L);
+        event.setTotalAuthors(25L);
+        when(eventStatisticsRepository.findById(5L)).thenReturn(Optional.of(event));
+
+        aggregator.add(submission);
+        aggregator.flush();
+
+        EventStatistics expected = new EventStatistics(5L);
+        expected.setTotalSubmissions(11L);
+        expected.setOpen(1L);
+        expected.setAccepted(10L);
+        // the average of the track is rounded down from 8 / 3 to 2, so the track still accounts for 6 authors
+        expected.setTotalAuthors(25L);
+        verify(eventStatisticsRepository).save(expected);
+    }
+
+    @Test
+    void testFailedEventUpdateDoesNotRetryTrack() {
+        when(eventStatisticsRepository.save(any())).thenThrow(new IllegalStateException());
+        aggregator.add(submission);
+
+        aggregator.flush();
+
+        assertFalse(aggregator.hasPendingChanges());
+        verify(statisticsRepository, times(1)).save(any());
+    }
+
+    @Test
+    void testCheckRepairsEventStatistics() {
+        Statistics track3 = new Statistics();
+        track3.setId(3L);
+        track3.setTotalSubmissions(2L);
+        track3.setOpen(2L);
+        track3.setAverageNumberOfAuthors(3L);
+        Statistics track4 = new Statistics();
+        track4.setId(4L);
+        track4.setTotalSubmissions(1L);
+        track4.setRejected(1L);
+        track4.setAverageNumberOfAuthors(1L);
+        when(statisticsRepository.findAllById(any())).thenReturn(List.of(track3, track4));
+        EventStatistics stale = new EventStatistics(5L);
+        stale.setTotalSubmissions(2L);
+        stale.setOpen(2L);
+        stale.setTotalAuthors(6L);
+        when(eventStatisticsRepository.findAll()).thenReturn(List.of(stale));
+
+        int repaired = aggregator.checkEventStatistics(List.of(new TrackEvent(3L, 5L), new TrackEvent(4L, 6L)));
+
+        assertEquals(1, repaired);
+        EventStatistics missing = new EventStatistics(6L);
+        missing.setTotalSubmissions(1L);
+        missing.setRejected(1L);
+        missing.setTotalAuthors(1L);
+        verify(eventStatisticsRepository).save(missing);
+        verify(eventStatisticsRepository, never()).save(stale);
+    }
+
+    @Test
+    void testEventKeywordCountsChangeWithTrack() {
+        when(keywordCountRepository.increment(3L, "keyword1", 1L)).thenReturn(1);
+        aggregator.add(submission);
+        aggregator.flush();
+
+        ArgumentCaptor<EventKeywordCount> captor = ArgumentCaptor.forClass(EventKeywordCount.class);
+        verify(eventKeywordCountRepository).save(captor.capture());
+        assertEquals(5L, captor.getValue().getEventId());
+        assertEquals("keyword1", captor.getValue().getKeyword());
+        assertEquals(1L, captor.getValue().getOccurrences());
+
+        when(keywordCountRepository.increment(3L, "keyword1", -1L)).thenReturn(1);
+        when(eventKeywordCountRepository.increment(5L, "keyword1", -1L)).thenReturn(1);
+        aggregator.remove(submission);
+        aggregator.flush();
+
+        verify(eventKeywordCountRepository).deleteUnused(5L);
+    }
+
+    @Test
+    void testFailedTrackKeywordUpdateDoesNotChangeEvent() {
+        when(keywordCountRepository.increment(3L, "keyword1", 1L)).thenThrow(new IllegalStateException());
+        aggregator.add(submission);
+
+        aggregator.flush();
+
+        verifyNoInteractions(eventKeywordCountRepository);
+    }
+
+    @Test
+    void testCheckRepairsEventKeywordCounts() {
+        when(keywordCountRepository.sumByEventId(5L))
+                .thenReturn(List.of(new KeywordTotal("keyword1", 2L), new KeywordTotal("keyword2", 1L)));
+        EventKeywordCount stale = new EventKeywordCount(5L, "keyword1", 1L);
+        EventKeywordCount removed = new EventKeywordCount(5L, "keyword3", 2L);
+        when(eventKeywordCountRepository.findByEventId(5L)).thenReturn(List.of(stale, removed));
+
+        int repaired = aggregator.checkEventStatistics(List.of(new TrackEvent(3L, 5L)));
+
+        assertEquals(1, repaired);
+        verify(eventKeywordCountRepository).save(stale);
+        assertEquals(2L, stale.getOccurrences());
+        verify(eventKeywordCountRepository).delete(removed);
+        ArgumentCaptor<EventKeywordCount> captor = ArgumentCaptor.forClass(EventKeywordCount.class);
+        verify(eventKeywordCountRepository, times(2)).save(captor.capture());
+        assertEquals("keyword2", captor.getAllValues().get(1).getKeyword());
+        assertEquals(1L, captor.getAllValues().get(1).getOccurrences());
+    }
+
+    @Test
+    void testConcurrentSubmissionsAreNotLost() throws Exception {
+        final int threads = 8;
+        final int submissionsPerThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    for (int j = 0; j < submissionsPerThread; j++) {
+                        aggregator.add(submission);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Statistics saved = flushAndCapture();
+        assertEquals(threads * submissionsPerThread, saved.getTotalSubmissions());
+        assertEquals(threads * submissionsPerThread, saved.getOpen());
+        verify(keywordCountRepository).increment(3L, "keyword1", (long) threads * submissionsPerThread);
+    }
+}
@@ -19,6 +19,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,9 +52,12 @@ class PcChairStrategyTest {
         Track track = new Track();
         track.setId(trackId);
 
-        Statistics result = pcChairStrategy.getStatistics(track);
+        Statistics result = pcChairStrategy.getStatistics(track, null);
 
-        assertEquals(expectedStatistics, result);
+        assertEquals(new Statistics().keywordsCounts(result.getKeywordsCounts()), result);
+        assertEquals(List.of(), result.getKeywordsCounts().getKeywords());
+        // the stored statistics are a managed entity, the keyword counts shown must not be written back
+        assertNull(expectedStatistics.getKeywordsCounts());
         verify(statisticsRepository).findById(trackId);
     }
 
@@ -66,7 +70,7 @@ class PcChairStrategyTest {
         Track track = new Track();
         track.setId(trackId);
 
-        assertThrows(NotFoundException.class, () -> pcChairStrategy.getStatistics(track));
+        assertThrows(NotFoundException.class, () -> pcChairStrategy.getStatistics(track, null));
         verify(statisticsRepository).findById(trackId);
     }
 
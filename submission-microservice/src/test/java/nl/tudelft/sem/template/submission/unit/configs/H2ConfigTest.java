@@ -0,0 +1,73 @@
+package nl.tudelft.sem.template.submission.unit.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import nl.tudelft.sem.template.submission.configs.H2Config;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class H2ConfigTest {
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("jdbc.driverClassName", "org.h2.Driver")
+                .withProperty("jdbc.url", "jdbc:h2:mem:poolDb;DB_CLOSE_DELAY=-1")
+                .withProperty("jdbc.pool.maximum-size", "3")
+                .withProperty("jdbc.pool.leak-detection-threshold-ms", "10000")
+                .withProperty("jdbc.pool.statement-cache-size", "32");
+        dataSource = (HikariDataSource) new H2Config(environment).dataSource();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void testPoolIsConfiguredFromProperties() {
+        assertEquals(3, dataSource.getMaximumPoolSize());
+        assertEquals(2, dataSource.getMinimumIdle());
+        assertEquals(5_000L, dataSource.getConnectionTimeout());
+        assertEquals(10_000L, dataSource.getLeakDetectionThreshold());
+        assertEquals("submission-pool", dataSource.getPoolName());
+        assertFalse(dataSource.isRegisterMbeans());
+    }
+
+    @Test
+    void testStatementCacheReachesDatabase() throws Exception {
+        assertEquals(32, dataSource.getDataSourceProperties().get("QUERY_CACHE_SIZE"));
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE NAME = 'QUERY_CACHE_SIZE'")) {
+            assertTrue(resultSet.next());
+            assertEquals("32", resultSet.getString(1));
+        }
+    }
+
+    @Test
+    void testConnectionsAreReused() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+                assertTrue(resultSet.next());
+            }
+        }
+
+        assertTrue(dataSource.getHikariPoolMXBean().getTotalConnections() <= 3);
+        assertEquals(0, dataSource.getHikariPoolMXBean().getActiveConnections());
+    }
+}
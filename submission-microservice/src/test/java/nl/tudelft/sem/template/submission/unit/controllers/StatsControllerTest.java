@@ -1,11 +1,11 @@
 package nl.tudelft.sem.template.submission.unit.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import javassist.NotFoundException;
 import nl.tudelft.sem.template.model.Statistics;
 import nl.tudelft.sem.template.submission.Application;
 import nl.tudelft.sem.template.submission.controllers.StatsController;
 import nl.tudelft.sem.template.submission.controllers.SubmissionController;
-import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
 import nl.tudelft.sem.template.submission.services.StatisticsService;
 import nl.tudelft.sem.template.submission.services.SubmissionService;
 import org.junit.jupiter.api.BeforeAll;
@@ -17,15 +17,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith({SpringExtension.class, MockitoExtension.class})
@@ -41,9 +50,6 @@ public class StatsControllerTest {
     @MockBean
     private StatisticsService service;
 
-    @MockBean
-    private StatisticsRepository repository;
-
     @Autowired
     @InjectMocks
     private StatsController controller;
@@ -73,59 +79,116 @@ public class StatsControllerTest {
 
     @BeforeEach
     void setup() throws Exception {
-        when(service.getStatistics(1L)).thenReturn(statistics1);
-        when(service.getStatistics(2L)).thenReturn(statistics2);
+        when(service.getStatistics(1L, null)).thenReturn(statistics1);
+        when(service.getStatistics(2L, null)).thenReturn(statistics2);
 
-        when(repository.findAll()).thenReturn(List.of(statistics1, statistics2));
+        when(service.getAllStatistics()).thenReturn(List.of(statistics1, statistics2));
     }
 
     @Test
     void testStatsGet() {
-        ResponseEntity<List<Statistics>> response = controller.statsGet();
+        ResponseEntity<List<Statistics>> response = controller.statsGet(null, null);
+        assertEquals(List.of(statistics1, statistics2), response.getBody());
+    }
+
+    @Test
+    void testStatsGetPage() {
+        when(service.getStatisticsPage(null, 2)).thenReturn(List.of(statistics1, statistics2));
+        ResponseEntity<List<Statistics>> response = controller.statsGet(2, null);
         assertEquals(List.of(statistics1, statistics2), response.getBody());
+        assertEquals("2", response.getHeaders().getFirst("Next-Cursor"));
+        verify(service, never()).getAllStatistics();
+    }
+
+    @Test
+    void testStatsGetLastPage() {
+        when(service.getStatisticsPage(1L, 100)).thenReturn(List.of(statistics2));
+        ResponseEntity<List<Statistics>> response = controller.statsGet(null, 1L);
+        assertEquals(List.of(statistics2), response.getBody());
+        assertFalse(response.getHeaders().containsKey("Next-Cursor"));
+    }
+
+    @Test
+    void testStatsGetInvalidLimit() {
+        assertEquals(HttpStatus.BAD_REQUEST, controller.statsGet(0, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, controller.statsGet(1001, null).getStatusCode());
+        verify(service, never()).getStatisticsPage(any(), anyInt());
+    }
+
+    @Test
+    void testStatsStream() throws Exception {
+        when(service.getStatisticsPage(null, 1000)).thenReturn(List.of(statistics1, statistics2));
+        when(service.getStatisticsPage(2L, 1000)).thenReturn(List.of());
+
+        ResponseEntity<Resource> response = controller.statsStreamGet();
+        assertEquals(MediaType.parseMediaType("application/x-ndjson"), response.getHeaders().getContentType());
+        // nothing is read before the body is written
+        verify(service, never()).getStatisticsPage(any(), anyInt());
+
+        String body = new String(response.getBody().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        ObjectMapper objectMapper = new ObjectMapper();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(statistics1, objectMapper.readValue(lines[0], Statistics.class));
+        assertEquals(statistics2, objectMapper.readValue(lines[1], Statistics.class));
     }
 
     @Test
     void testTrackStatistics() {
-        ResponseEntity<Statistics> stats = controller.trackOrEventStatisticsGet(1L);
+        ResponseEntity<Statistics> stats = controller.trackOrEventStatisticsGet(1L, null);
         assertEquals(statistics1, stats.getBody());
     }
 
     @Test
     void testEventStatistics() {
-        ResponseEntity<Statistics> stats = controller.trackOrEventStatisticsGet(2L);
+        ResponseEntity<Statistics> stats = controller.trackOrEventStatisticsGet(2L, null);
         assertEquals(statistics2, stats.getBody());
     }
 
     @Test
     void testNotFoundExceptionTrack() throws Exception {
-        when(service.getStatistics(1L)).thenThrow(NotFoundException.class);
-        when(service.getStatistics(0L)).thenThrow(IllegalAccessException.class);
-        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(1L);
+        when(service.getStatistics(1L, null)).thenThrow(NotFoundException.class);
+        when(service.getStatistics(0L, null)).thenThrow(IllegalAccessException.class);
+        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(1L, null);
         assertEquals(HttpStatus.NOT_FOUND, out.getStatusCode());
     }
 
     @Test
     void testIllegalAccessExceptionTrack() throws Exception {
-        when(service.getStatistics(1L)).thenThrow(NotFoundException.class);
-        when(service.getStatistics(0L)).thenThrow(IllegalAccessException.class);
-        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(0L);
+        when(service.getStatistics(1L, null)).thenThrow(NotFoundException.class);
+        when(service.getStatistics(0L, null)).thenThrow(IllegalAccessException.class);
+        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(0L, null);
         assertEquals(HttpStatus.UNAUTHORIZED, out.getStatusCode());
     }
 
     @Test
     void testNotFoundExceptionEvent() throws Exception {
-        when(service.getStatistics(1L)).thenThrow(NotFoundException.class);
-        when(service.getStatistics(0L)).thenThrow(IllegalAccessException.class);
-        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(1L);
+        when(service.getStatistics(1L, null)).thenThrow(NotFoundException.class);
+        when(service.getStatistics(0L, null)).thenThrow(IllegalAccessException.class);
+        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(1L, null);
         assertEquals(HttpStatus.NOT_FOUND, out.getStatusCode());
     }
 
     @Test
     void testIllegalAccessExceptionEvent() throws Exception {
-        when(service.getStatistics(1L)).thenThrow(NotFoundException.class);
-        when(service.getStatistics(0L)).thenThrow(IllegalAccessException.class);
-        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(0L);
+        when(service.getStatistics(1L, null)).thenThrow(NotFoundException.class);
+        when(service.getStatistics(0L, null)).thenThrow(IllegalAccessException.class);
+        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(0L, null);
         assertEquals(HttpStatus.UNAUTHORIZED, out.getStatusCode());
     }
+
+    @Test
+    void testTopKeywords() throws Exception {
+        when(service.getStatistics(1L, 3)).thenReturn(statistics1);
+        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(1L, 3);
+        assertEquals(HttpStatus.OK, out.getStatusCode());
+        assertEquals(statistics1, out.getBody());
+    }
+
+    @Test
+    void testInvalidTopKeywords() throws Exception {
+        ResponseEntity<Statistics> out = controller.trackOrEventStatisticsGet(1L, 0);
+        assertEquals(HttpStatus.BAD_REQUEST, out.getStatusCode());
+        verify(service, never()).getStatistics(anyLong(), any());
+    }
 }
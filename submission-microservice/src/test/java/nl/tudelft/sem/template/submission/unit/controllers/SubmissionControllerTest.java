@@ -2,6 +2,7 @@ package nl.tudelft.sem.template.submission.unit.controllers;
 
 import javassist.NotFoundException;
 import nl.tudelft.sem.template.model.PaperType;
+import nl.tudelft.sem.template.model.SimilarSubmission;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.submission.components.chain.DeadlinePassedException;
 import nl.tudelft.sem.template.submission.components.chain.DuplicateSubmissionException;
@@ -88,6 +89,18 @@ public class SubmissionControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    void testGetSimilarSubmissions() throws Exception {
+        List<SimilarSubmission> similar = List.of(new SimilarSubmission().submissionId(2L).similarity(0.8));
+        when(submissionService.getSimilar(1L)).thenReturn(ResponseEntity.ok(similar));
+        when(submissionService.getSimilar(2L)).thenThrow(IllegalAccessException.class);
+        when(submissionService.getSimilar(3L)).thenThrow(NotFoundException.class);
+
+        assertEquals(similar, submissionController.getSimilarSubmissions(1L).getBody());
+        assertEquals(HttpStatus.UNAUTHORIZED, submissionController.getSimilarSubmissions(2L).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, submissionController.getSimilarSubmissions(3L).getStatusCode());
+    }
+
     @Test
     void testSaveFile() throws InvocationTargetException, IllegalAccessException, IOException, NoSuchMethodException {
         //private method:((
@@ -258,12 +271,22 @@ public class SubmissionControllerTest {
         Long eventId = 987L;
         PaperType type = PaperType.FULL_PAPER;
         ResponseEntity<List<Submission>> expectedResponse = ResponseEntity.ok(new ArrayList<>());
-        when(submissionService.get(submittedBy, authors, title, keywords, trackId, eventId, type))
-                .thenReturn(expectedResponse);
+        when(submissionService.get(submittedBy, authors, title, keywords, trackId, eventId, type,
+                "-created", 10, "cursor", null)).thenReturn(expectedResponse);
         ResponseEntity<List<Submission>> result = submissionController.submissionGet(submittedBy, authors, title,
-                keywords, trackId, eventId, type);
+                keywords, trackId, eventId, type, "-created", 10, "cursor", null);
         assertEquals(expectedResponse, result);
-        verify(submissionService).get(submittedBy, authors, title, keywords, trackId, eventId, type);
+        verify(submissionService).get(submittedBy, authors, title, keywords, trackId, eventId, type,
+                "-created", 10, "cursor", null);
+    }
+
+    @Test
+    void testSubmissionGetInvalidPage() {
+        when(submissionService.get(null, null, null, null, null, null, null, "title", null, null, null))
+                .thenThrow(IllegalArgumentException.class);
+        ResponseEntity<List<Submission>> result = submissionController.submissionGet(null, null, null,
+                null, null, null, null, "title", null, null, null);
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
     }
 
     @Test
@@ -0,0 +1,77 @@
+package nl.tudelft.sem.template.submission.unit.repositories;
+
+import nl.tudelft.sem.template.submission.Application;
+import nl.tudelft.sem.template.submission.controllers.SubmissionController;
+import nl.tudelft.sem.template.submission.models.EventKeywordCount;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.services.SubmissionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("test")
+class EventKeywordCountRepositoryTest {
+    @MockBean
+    private SubmissionService submissionService;
+    @MockBean
+    private SubmissionController submissionController;
+
+    @Autowired
+    private EventKeywordCountRepository eventKeywordCountRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        eventKeywordCountRepository.deleteAll();
+        eventKeywordCountRepository.save(new EventKeywordCount(7L, "databases", 5L));
+        eventKeywordCountRepository.save(new EventKeywordCount(7L, "networks", 1L));
+        eventKeywordCountRepository.save(new EventKeywordCount(7L, "algorithms", 5L));
+        eventKeywordCountRepository.save(new EventKeywordCount(8L, "security", 4L));
+    }
+
+    @Test
+    void testTopKeywordsOfEvent() {
+        assertEquals(List.of(new KeywordTotal("algorithms", 5L), new KeywordTotal("databases", 5L)),
+                eventKeywordCountRepository.topByEventId(7L, PageRequest.of(0, 2)));
+        assertEquals(List.of(new KeywordTotal("security", 4L)),
+                eventKeywordCountRepository.topByEventId(8L, Pageable.unpaged()));
+    }
+
+    @Test
+    void testUnusedKeywordsAreLeftOutAndDeleted() {
+        assertEquals(1, eventKeywordCountRepository.increment(7L, "networks", -1L));
+        assertEquals(0, eventKeywordCountRepository.increment(7L, "compilers", 1L));
+
+        assertEquals(List.of(new KeywordTotal("algorithms", 5L), new KeywordTotal("databases", 5L)),
+                eventKeywordCountRepository.topByEventId(7L, PageRequest.of(0, 5)));
+        assertEquals(1, eventKeywordCountRepository.deleteUnused(7L));
+        assertEquals(3, eventKeywordCountRepository.count());
+    }
+
+    @Test
+    void testTopKeywordsOfEventAreReadInIndexOrder() {
+        String plan = (String) entityManagerFactory.createEntityManager()
+                .createNativeQuery("explain select keyword, occurrences from event_keyword_count"
+                        + " where event_id = 7 order by event_id, occurrences desc, keyword limit 2")
+                .getSingleResult();
+
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+}
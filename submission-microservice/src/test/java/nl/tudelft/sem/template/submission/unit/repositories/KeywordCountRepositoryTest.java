@@ -0,0 +1,120 @@
+package nl.tudelft.sem.template.submission.unit.repositories;
+
+import nl.tudelft.sem.template.submission.Application;
+import nl.tudelft.sem.template.submission.controllers.SubmissionController;
+import nl.tudelft.sem.template.submission.models.KeywordCount;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
+import nl.tudelft.sem.template.submission.services.SubmissionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("test")
+class KeywordCountRepositoryTest {
+    @MockBean
+    private SubmissionService submissionService;
+    @MockBean
+    private SubmissionController submissionController;
+
+    @Autowired
+    private KeywordCountRepository keywordCountRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        keywordCountRepository.deleteAll();
+        keywordCountRepository.save(new KeywordCount(1L, "databases", 7L, 3L));
+        keywordCountRepository.save(new KeywordCount(1L, "networks", 7L, 1L));
+        keywordCountRepository.save(new KeywordCount(2L, "databases", 7L, 2L));
+        keywordCountRepository.save(new KeywordCount(3L, "security", 8L, 4L));
+    }
+
+    private List<String> summary(long trackId) {
+        return keywordCountRepository.topByTrackId(trackId, Pageable.unpaged()).stream()
+                .map(total -> total.getKeyword() + "=" + total.getOccurrences())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testIncrementChangesOnlyOneRow() {
+        assertEquals(1, keywordCountRepository.increment(1L, "networks", 4L));
+        assertEquals(0, keywordCountRepository.increment(1L, "security", 1L));
+
+        assertEquals(List.of("networks=5", "databases=3"), summary(1L));
+        assertEquals(List.of("databases=2"), summary(2L));
+    }
+
+    @Test
+    void testCountsOfEventAreAddedUp() {
+        List<KeywordTotal> totals = keywordCountRepository.sumByEventId(7L);
+
+        assertEquals(List.of(new KeywordTotal("databases", 5L), new KeywordTotal("networks", 1L)), totals);
+        assertEquals(List.of(new KeywordTotal("security", 4L)), keywordCountRepository.sumByEventId(8L));
+    }
+
+    @Test
+    void testOnlyTopKeywordsAreReturned() {
+        assertEquals(List.of(new KeywordTotal("databases", 5L)),
+                keywordCountRepository.sumByEventId(7L, PageRequest.of(0, 1)));
+        assertEquals(List.of(new KeywordTotal("databases", 5L), new KeywordTotal("networks", 1L)),
+                keywordCountRepository.sumByEventId(7L, PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void testTopKeywordsOfTrack() {
+        keywordCountRepository.save(new KeywordCount(1L, "compilers", 7L, 0L));
+
+        assertEquals(List.of(new KeywordTotal("databases", 3L)),
+                keywordCountRepository.topByTrackId(1L, PageRequest.of(0, 1)));
+        // a keyword no submission has anymore is left out
+        assertEquals(List.of(new KeywordTotal("databases", 3L), new KeywordTotal("networks", 1L)),
+                keywordCountRepository.topByTrackId(1L, PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void testTopKeywordsOfTrackAreReadInIndexOrder() {
+        String plan = (String) entityManagerFactory.createEntityManager()
+                .createNativeQuery("explain select keyword, occurrences from keyword_count"
+                        + " where track_id = 1 order by track_id, occurrences desc, keyword limit 1")
+                .getSingleResult();
+
+        assertTrue(plan.contains("/* index sorted */"), plan);
+    }
+
+    @Test
+    void testUsedKeywordsOfTracks() {
+        keywordCountRepository.increment(1L, "networks", -1L);
+
+        List<String> counts = keywordCountRepository.findUsedByTrackIds(List.of(1L, 2L)).stream()
+                .map(count -> count.getTrackId() + ":" + count.getKeyword() + "=" + count.getOccurrences())
+                .collect(Collectors.toList());
+        assertEquals(List.of("1:databases=3", "2:databases=2"), counts);
+    }
+
+    @Test
+    void testUnusedKeywordsAreDeleted() {
+        keywordCountRepository.increment(1L, "networks", -1L);
+
+        assertEquals(1, keywordCountRepository.deleteUnused(1L));
+        assertEquals(List.of("databases=3"), summary(1L));
+        assertEquals(3, keywordCountRepository.count());
+    }
+}
@@ -0,0 +1,58 @@
+package nl.tudelft.sem.template.submission.unit.repositories;
+
+import nl.tudelft.sem.template.model.Statistics;
+import nl.tudelft.sem.template.submission.Application;
+import nl.tudelft.sem.template.submission.controllers.SubmissionController;
+import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
+import nl.tudelft.sem.template.submission.services.SubmissionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("test")
+class StatisticsRepositoryTest {
+    @MockBean
+    private SubmissionService submissionService;
+    @MockBean
+    private SubmissionController submissionController;
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    @BeforeEach
+    void setUp() {
+        statisticsRepository.deleteAll();
+        for (long id : List.of(4L, 1L, 7L, 3L, 9L)) {
+            Statistics statistics = new Statistics();
+            statistics.setId(id);
+            statisticsRepository.save(statistics);
+        }
+    }
+
+    private List<Long> page(long after, int size) {
+        return statisticsRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, size)).stream()
+                .map(Statistics::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testPagesFollowEachOther() {
+        assertEquals(List.of(1L, 3L), page(Long.MIN_VALUE, 2));
+        assertEquals(List.of(4L, 7L), page(3L, 2));
+        assertEquals(List.of(9L), page(7L, 2));
+        assertEquals(List.of(), page(9L, 2));
+    }
+}
@@ -0,0 +1,228 @@
+package nl.tudelft.sem.template.submission.unit.repositories;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.tudelft.sem.template.model.PaperType;
+import nl.tudelft.sem.template.model.Submission;
+import nl.tudelft.sem.template.submission.Application;
+import nl.tudelft.sem.template.submission.controllers.SubmissionController;
+import nl.tudelft.sem.template.submission.models.SubmissionRow;
+import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
+import nl.tudelft.sem.template.submission.services.SubmissionService;
+import nl.tudelft.sem.template.submission.services.SubmissionServiceUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class SubmissionRepositoryTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @MockBean
+    private SubmissionService submissionService;
+    @MockBean
+    private SubmissionController submissionController;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        submissionRepository.deleteAll();
+        // submissions 2 and 3 are created at the same time
+        save(1L, 10L, 3);
+        save(2L, 10L, 1);
+        save(3L, 10L, 1);
+        save(4L, 11L, 0);
+        save(5L, 10L, 2);
+    }
+
+    private void save(long id, long trackId, int hoursAfterStart) {
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setTitle("title " + id);
+        submission.setTrackId(trackId);
+        submission.setType(PaperType.FULL_PAPER);
+        submission.setCreated(START.plusHours(hoursAfterStart));
+        submissionRepository.save(submission);
+    }
+
+    private static List<Long> ids(List<SubmissionRow> submissions) {
+        return submissions.stream().map(SubmissionRow::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testPagesById() {
+        PageRequest two = PageRequest.of(0, 2);
+        assertEquals(List.of(1L, 2L), ids(submissionRepository.findMatchingById(null, null, null, null,
+                null, null, null, null, two)));
+        assertEquals(List.of(3L, 4L), ids(submissionRepository.findMatchingById(null, null, null, null,
+                null, null, null, 2L, two)));
+        assertEquals(List.of(5L, 3L), ids(submissionRepository.findMatchingByIdDesc(null, null, null, null,
+                10L, null, null, null, two)));
+        assertEquals(List.of(2L, 1L), ids(submissionRepository.findMatchingByIdDesc(null, null, null, null,
+                10L, null, null, 3L, two)));
+    }
+
+    @Test
+    void testPagesByCreated() {
+        PageRequest two = PageRequest.of(0, 2);
+        assertEquals(List.of(4L, 2L), ids(submissionRepository.findMatchingByCreated(null, null, null, null,
+                null, null, null, null, null, two)));
+        assertEquals(List.of(3L, 5L), ids(submissionRepository.findMatchingByCreated(null, null, null, null,
+                null, null, null, START.plusHours(1), 2L, two)));
+        assertEquals(List.of(1L, 5L), ids(submissionRepository.findMatchingByCreatedDesc(null, null, null, null,
+                null, null, null, null, null, two)));
+        assertEquals(List.of(3L, 2L), ids(submissionRepository.findMatchingByCreatedDesc(null, null, null, null,
+                null, null, null, START.plusHours(2), 5L, two)));
+        assertEquals(List.of(2L, 4L), ids(submissionRepository.findMatchingByCreatedDesc(null, null, null, null,
+                null, null, null, START.plusHours(1), 3L, two)));
+    }
+
+    @Test
+    void testKeywordsFilter() {
+        for (long id : List.of(1L, 2L, 4L)) {
+            Submission submission = submissionRepository.findById(id).orElseThrow();
+            submission.setKeywords(List.of("keyword" + id % 2, "common"));
+            submissionRepository.save(submission);
+        }
+
+        assertEquals(List.of(2L, 4L), ids(submissionRepository.findMatchingById(null, null, null,
+                List.of("keyword0"), null, null, null, null, Pageable.unpaged())));
+        assertEquals(List.of(1L, 2L, 4L), ids(submissionRepository.findMatchingById(null, null, null,
+                List.of("keyword0", "keyword1"), null, null, null, null, Pageable.unpaged())));
+        assertEquals(List.of(1L, 2L), ids(submissionRepository.findMatchingById(null, null, null,
+                List.of("common"), 10L, null, null, null, Pageable.unpaged())));
+        assertEquals(List.of(), ids(submissionRepository.findMatchingById(null, null, null,
+                List.of("other"), null, null, null, null, Pageable.unpaged())));
+    }
+
+    @Test
+    void testKeywordsAndAuthorsAreIndexed() {
+        for (String table : List.of("keywords", "authors")) {
+            String plan = (String) entityManagerFactory.createEntityManager()
+                    .createNativeQuery("explain select submission_id from submission_" + table
+                            + " where " + table + " = '1'")
+                    .getSingleResult();
+
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+    }
+
+    private void setAuthors(long id, List<Long> authors) {
+        Submission submission = submissionRepository.findById(id).orElseThrow();
+        submission.setAuthors(authors);
+        submissionRepository.save(submission);
+    }
+
+    @Test
+    void testAuthorsFilter() {
+        setAuthors(1L, List.of(7L, 8L));
+        setAuthors(3L, List.of(8L));
+        setAuthors(4L, List.of(9L));
+
+        assertEquals(List.of(1L, 3L), ids(submissionRepository.findMatchingById(null, List.of(8L), null,
+                null, null, null, null, null, Pageable.unpaged())));
+        assertEquals(List.of(1L, 4L), ids(submissionRepository.findMatchingById(null, List.of(7L, 9L), null,
+                null, null, null, null, null, Pageable.unpaged())));
+        assertEquals(List.of(1L, 3L), ids(submissionRepository.findMatchingById(null, List.of(8L, 9L), null,
+                null, 10L, null, null, null, Pageable.unpaged())));
+    }
+
+    @Test
+    void testFindIdsByAuthors() {
+        setAuthors(1L, List.of(7L, 8L));
+        setAuthors(3L, List.of(8L));
+        setAuthors(4L, List.of(9L));
+
+        assertEquals(Map.of(7L, List.of(1L), 8L, List.of(1L, 3L)),
+                submissionRepository.findIdsByAuthors(List.of(7L, 8L, 10L)));
+        assertTrue(submissionRepository.isAuthor(3L, 8L));
+        assertFalse(submissionRepository.isAuthor(3L, 7L));
+        assertFalse(submissionRepository.isAuthor(2L, 8L));
+    }
+
+    private void saveWithCollections() {
+        List<Submission> submissions = new ArrayList<>();
+        for (long id = 100; id < 1100; id++) {
+            Submission submission = new Submission();
+            submission.setId(id);
+            submission.setTitle("title " + id);
+            submission.setEventId(3L);
+            submission.setAuthors(List.of(id, id + 1));
+            submission.setKeywords(List.of("keyword" + id % 7));
+            submission.setComments(List.of("comment"));
+            submissions.add(submission);
+        }
+        submissionRepository.saveAll(submissions);
+    }
+
+    @Test
+    void testEntitiesLoadCollectionsInBatches() throws Exception {
+        saveWithCollections();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        // the collections are loaded while the entities are serialized
+        String json = new TransactionTemplate(transactionManager).execute(status -> {
+            try {
+                return new ObjectMapper().writeValueAsString(submissionRepository.findAll());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertTrue(json.contains("\"authors\":[1099,1100]"));
+        // one query for the 1005 submissions, and for every 100 submissions one per collection: authors, keywords,
+        // comments and the users and types of the conflicts of interest; without batches this would be 5026
+        assertEquals(1 + 5 * 11, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testListingReadsCollectionsInBulk() throws Exception {
+        saveWithCollections();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Submission> submissions = SubmissionServiceUtils.toSubmissions(submissionRepository,
+                submissionRepository.findAllMatching(null, null, null, null, null, 3L, null));
+
+        assertEquals(1000, submissions.size());
+        Submission last = submissions.get(999);
+        assertEquals(List.of(1099L, 1100L), last.getAuthors());
+        assertEquals(List.of("keyword0"), last.getKeywords());
+        assertEquals(List.of("comment"), last.getComments());
+        // one query for the rows and one per collection, no entity is loaded into the persistence context
+        assertEquals(1 + 5, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
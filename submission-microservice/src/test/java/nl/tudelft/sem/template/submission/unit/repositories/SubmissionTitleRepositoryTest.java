@@ -0,0 +1,66 @@
+package nl.tudelft.sem.template.submission.unit.repositories;
+
+import nl.tudelft.sem.template.submission.Application;
+import nl.tudelft.sem.template.submission.controllers.SubmissionController;
+import nl.tudelft.sem.template.submission.models.SubmissionTitle;
+import nl.tudelft.sem.template.submission.repositories.SubmissionTitleRepository;
+import nl.tudelft.sem.template.submission.services.SubmissionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("test")
+class SubmissionTitleRepositoryTest {
+    @MockBean
+    private SubmissionService submissionService;
+    @MockBean
+    private SubmissionController submissionController;
+
+    @Autowired
+    private SubmissionTitleRepository submissionTitleRepository;
+
+    @BeforeEach
+    void setUp() {
+        submissionTitleRepository.deleteAll();
+        submissionTitleRepository.save(new SubmissionTitle(1L, 3L, SubmissionTitle.normalize("Paper Title")));
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("paper title", SubmissionTitle.normalize("  Paper \t\n TITLE "));
+        assertEquals("fine tuning", SubmissionTitle.normalize("ﬁne tuning"));
+        assertEquals("", SubmissionTitle.normalize(null));
+    }
+
+    @Test
+    void testExistsInSameEventOnly() {
+        assertTrue(submissionTitleRepository.existsByEventIdAndNormalizedTitle(3L,
+                SubmissionTitle.normalize("paper  title")));
+        assertFalse(submissionTitleRepository.existsByEventIdAndNormalizedTitle(4L,
+                SubmissionTitle.normalize("Paper Title")));
+        // a title containing the title of another submission is not a duplicate
+        assertFalse(submissionTitleRepository.existsByEventIdAndNormalizedTitle(3L,
+                SubmissionTitle.normalize("Paper Title 2")));
+    }
+
+    @Test
+    void testTitleUniqueInEvent() {
+        submissionTitleRepository.saveAndFlush(new SubmissionTitle(2L, 4L, "paper title"));
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                submissionTitleRepository.saveAndFlush(new SubmissionTitle(3L, 3L, "paper title")));
+    }
+}
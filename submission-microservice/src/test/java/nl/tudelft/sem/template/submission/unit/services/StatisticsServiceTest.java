@@ -1,15 +1,27 @@
 package nl.tudelft.sem.template.submission.unit.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import javassist.NotFoundException;
 import nl.tudelft.sem.template.model.*;
 import nl.tudelft.sem.template.submission.Application;
 import nl.tudelft.sem.template.submission.authentication.AuthManager;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
 import nl.tudelft.sem.template.submission.controllers.SubmissionController;
 import nl.tudelft.sem.template.submission.models.Attendee;
+import nl.tudelft.sem.template.submission.models.EventStatistics;
+import nl.tudelft.sem.template.submission.models.KeywordCount;
+import nl.tudelft.sem.template.submission.models.KeywordTotal;
 import nl.tudelft.sem.template.submission.models.RequestType;
+import nl.tudelft.sem.template.submission.models.TrackEvent;
+import nl.tudelft.sem.template.submission.repositories.EventKeywordCountRepository;
+import nl.tudelft.sem.template.submission.repositories.EventStatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.KeywordCountRepository;
 import nl.tudelft.sem.template.submission.repositories.StatisticsRepository;
+import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
 import nl.tudelft.sem.template.submission.services.HttpRequestService;
 import nl.tudelft.sem.template.submission.services.StatisticsService;
+import nl.tudelft.sem.template.submission.services.StatisticsServiceUtils;
 import nl.tudelft.sem.template.submission.services.SubmissionService;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,15 +32,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -45,6 +64,18 @@ public class StatisticsServiceTest {
     @MockBean
     private StatisticsRepository repository;
 
+    @MockBean
+    private KeywordCountRepository keywordCountRepository;
+
+    @MockBean
+    private EventStatisticsRepository eventStatisticsRepository;
+
+    @MockBean
+    private EventKeywordCountRepository eventKeywordCountRepository;
+
+    @MockBean
+    private SubmissionRepository submissionRepository;
+
     @MockBean
     private HttpRequestService requestService;
 
@@ -57,6 +88,7 @@ public class StatisticsServiceTest {
 
     private static Statistics trackStats1;
     private static Statistics trackStats2;
+    private static EventStatistics eventStats;
 
     private static Attendee generalChair;
     private static Attendee pcChair1;
@@ -118,6 +150,12 @@ public class StatisticsServiceTest {
         keywordsCounts2.setKeywords(List.of("keyword1", "keyword2", "keyword3"));
         keywordsCounts2.setCounts(List.of(5L, 5L, 10L));
         trackStats2.setKeywordsCounts(keywordsCounts2);
+
+        eventStats = new EventStatistics(0L);
+        eventStats.setTotalSubmissions(30L);
+        eventStats.setAccepted(15L);
+        eventStats.setRejected(15L);
+        eventStats.setTotalAuthors(100L);
     }
 
     private void setupTrackService() {
@@ -127,17 +165,12 @@ public class StatisticsServiceTest {
     }
 
     private void setupRequestService() {
-        when(requestService.getList("track/" + "eventId=0", Track[].class, RequestType.USER))
-                .thenReturn(List.of(track1, track2));
-        when(requestService.getList("track/" + "eventId=1", Track[].class, RequestType.USER))
-                .thenReturn(List.of());
-
-        when(requestService.getList("attendee/trackId=0", Attendee[].class, RequestType.USER))
-                .thenReturn(List.of(generalChair, pcChair1));
-        when(requestService.getList("attendee/trackId=1", Attendee[].class, RequestType.USER))
-                .thenReturn(List.of(generalChair, pcChair2));
-        when(requestService.getList("attendee/trackId=2", Attendee[].class, RequestType.USER))
-                .thenReturn(List.of(generalChair));
+        when(requestService.getListReaderAsync("attendee/trackId=0", Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(List.of(generalChair, pcChair1)));
+        when(requestService.getListReaderAsync("attendee/trackId=1", Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(List.of(generalChair, pcChair2)));
+        when(requestService.getListReaderAsync("attendee/trackId=2", Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(List.of(generalChair)));
     }
 
     @BeforeEach
@@ -150,32 +183,58 @@ public class StatisticsServiceTest {
 
         when(repository.findById(0L)).thenReturn(Optional.ofNullable(trackStats1));
         when(repository.findById(1L)).thenReturn(Optional.ofNullable(trackStats2));
-        when(repository.findAllById(List.of(0L, 1L)))
+        when(repository.findAllById(Set.of(0L, 1L)))
                 .thenReturn(List.of(trackStats1, trackStats2));
+        when(eventStatisticsRepository.findById(0L)).thenReturn(Optional.of(eventStats));
     }
 
     @Test
     void testGetStatisticsPcChair() throws Exception {
-        when(requestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("1");
-        assertEquals(trackStats1, service.getStatistics(0L));
-
-        when(requestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("2");
-        assertEquals(trackStats2, service.getStatistics(1L));
+        when(requestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        KeywordsCounts stored = trackStats1.getKeywordsCounts();
+        Statistics statistics = service.getStatistics(0L);
+        assertEquals(StatisticsServiceUtils.withKeywordsCounts(trackStats1, statistics.getKeywordsCounts()), statistics);
+        // the stored statistics are a managed entity, the keyword counts shown must not be written back
+        assertSame(stored, trackStats1.getKeywordsCounts());
+
+        when(requestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(2L));
+        statistics = service.getStatistics(1L);
+        assertEquals(StatisticsServiceUtils.withKeywordsCounts(trackStats2, statistics.getKeywordsCounts()), statistics);
     }
 
     @Test
     void testGetStatisticsGeneralChair() throws Exception {
-        when(requestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("0");
+        when(requestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(0L));
         Statistics eventStats = service.getStatistics(0L);
         assertEquals(30L, eventStats.getTotalSubmissions());
         assertEquals(15L, eventStats.getAccepted());
         assertEquals(15L, eventStats.getRejected());
         assertEquals(100L / 30L, eventStats.getAverageNumberOfAuthors());
+        // the tracks of the event are not needed
+        verify(requestService, never()).getList(anyString(), eq(Track[].class), any());
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    void testGetStatisticsGeneralChairShowsEventKeywordCounts() throws Exception {
+        when(requestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(0L));
+        when(eventKeywordCountRepository.topByEventId(0L, Pageable.unpaged()))
+                .thenReturn(List.of(new KeywordTotal("keyword1", 15L), new KeywordTotal("keyword3", 10L)));
+
+        Statistics statistics = service.getStatistics(1L);
+
+        assertEquals(List.of("keyword1", "keyword3"), statistics.getKeywordsCounts().getKeywords());
+        assertEquals(List.of(15L, 10L), statistics.getKeywordsCounts().getCounts());
     }
 
     @Test
     void testNotFoundException() {
-        when(requestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("0");
+        when(requestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(0L));
         Exception e = assertThrows(NotFoundException.class, () -> {
             service.getStatistics(2L);
         });
@@ -185,7 +244,8 @@ public class StatisticsServiceTest {
 
     @Test
     void testIllegalAccessException() {
-        when(requestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("1");
+        when(requestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
         Exception e = assertThrows(IllegalAccessException.class, () -> {
             service.getStatistics(1L);
         });
@@ -196,35 +256,65 @@ public class StatisticsServiceTest {
     @Test
     void testAddSubmission() {
         service.updateStatistics(null, submission);
+        service.flush();
         Statistics saved = new Statistics();
-        KeywordsCounts keywordsCounts = new KeywordsCounts();
-        keywordsCounts.setKeywords(List.of("keyword1", "keyword2"));
-        keywordsCounts.setCounts(List.of(11L, 6L));
-
         saved.setId(0L);
         saved.setTotalSubmissions(11L);
         saved.setAccepted(4L);
         saved.setRejected(7L);
         saved.setAverageNumberOfAuthors(2L);
-        saved.setKeywordsCounts(keywordsCounts);
         verify(repository, times(1)).save(saved);
+        verify(keywordCountRepository).increment(0L, "keyword1", 1L);
+        verify(keywordCountRepository).increment(0L, "keyword2", 1L);
+        verify(keywordCountRepository, never()).deleteUnused(anyLong());
+
+        EventStatistics event = new EventStatistics(0L);
+        event.setTotalSubmissions(31L);
+        event.setAccepted(16L);
+        event.setRejected(15L);
+        event.setTotalAuthors(102L);
+        verify(eventStatisticsRepository, times(1)).save(event);
+    }
+
+    @Test
+    void testStatisticsAreWrittenOnFlush() {
+        service.updateStatistics(null, submission);
+        service.updateStatistics(null, submission);
+        verify(repository, never()).save(any(Statistics.class));
+
+        service.flush();
+        service.flush();
+        verify(repository, times(1)).findById(0L);
+        verify(repository, times(1)).save(trackStats1);
+        assertEquals(12L, trackStats1.getTotalSubmissions());
+        assertEquals(5L, trackStats1.getAccepted());
+    }
+
+    @Test
+    void testReadsDoNotWaitForFlush() {
+        when(repository.findAll()).thenReturn(List.of(trackStats1));
+        service.updateStatistics(null, submission);
+
+        assertEquals(10L, service.getAllStatistics().get(0).getTotalSubmissions());
+        service.getStatisticsPage(null, 10);
+        // the change is written with the next scheduled flush
+        verify(repository, never()).save(any(Statistics.class));
     }
 
     @Test
     void testDeleteSubmission() {
         service.updateStatistics(submission, null);
+        service.flush();
         Statistics saved = new Statistics();
-        KeywordsCounts keywordsCounts = new KeywordsCounts();
-        keywordsCounts.setKeywords(List.of("keyword1", "keyword2"));
-        keywordsCounts.setCounts(List.of(9L, 4L));
-
         saved.setId(0L);
         saved.setTotalSubmissions(9L);
         saved.setAccepted(2L);
         saved.setRejected(7L);
         saved.setAverageNumberOfAuthors(2L);
-        saved.setKeywordsCounts(keywordsCounts);
         verify(repository, times(1)).save(saved);
+        verify(keywordCountRepository).increment(0L, "keyword1", -1L);
+        verify(keywordCountRepository).increment(0L, "keyword2", -1L);
+        verify(keywordCountRepository).deleteUnused(0L);
     }
 
     @Test
@@ -238,17 +328,99 @@ public class StatisticsServiceTest {
         updated.setStatus(SubmissionStatus.ACCEPTED);
 
         service.updateStatistics(submission, updated);
+        service.flush();
         Statistics saved = new Statistics();
         saved.setId(0L);
         saved.setTotalSubmissions(10L);
         saved.setAccepted(3L);
         saved.setRejected(7L);
         saved.setAverageNumberOfAuthors(2L);
-        KeywordsCounts keywordsCounts = new KeywordsCounts();
-        keywordsCounts.setKeywords(List.of("keyword1", "keyword2"));
-        keywordsCounts.setCounts(List.of(10L, 5L));
-        saved.setKeywordsCounts(keywordsCounts);
         verify(repository, times(1)).save(saved);
+        // the keywords did not change
+        verifyNoInteractions(keywordCountRepository);
     }
-}
 
+    @Test
+    void testCheckEventStatisticsKeepsConsistentEvent() {
+        when(submissionRepository.findTrackEvents())
+                .thenReturn(List.of(new TrackEvent(0L, 0L), new TrackEvent(1L, 0L)));
+        when(eventStatisticsRepository.findAll()).thenReturn(List.of(eventStats));
+
+        assertEquals(0, service.checkEventStatistics());
+        verify(eventStatisticsRepository, never()).save(any());
+    }
+
+    @Test
+    void testCheckEventStatisticsRepairsEvents() {
+        when(submissionRepository.findTrackEvents())
+                .thenReturn(List.of(new TrackEvent(0L, 0L), new TrackEvent(1L, 0L)));
+        EventStatistics outdated = new EventStatistics(0L);
+        outdated.setTotalSubmissions(29L);
+        EventStatistics empty = new EventStatistics(1L);
+        empty.setTotalSubmissions(4L);
+        when(eventStatisticsRepository.findAll()).thenReturn(List.of(outdated, empty));
+
+        assertEquals(2, service.checkEventStatistics());
+        verify(eventStatisticsRepository).save(eventStats);
+        // the event has no submissions anymore
+        verify(eventStatisticsRepository).save(new EventStatistics(1L));
+    }
+
+    @Test
+    void testGetStatisticsPage() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, PageRequest.of(0, 2)))
+                .thenReturn(List.of(trackStats1, trackStats2));
+        when(keywordCountRepository.findUsedByTrackIds(List.of(0L, 1L))).thenReturn(List.of(
+                new KeywordCount(0L, "keyword1", 0L, 4L),
+                new KeywordCount(1L, "keyword3", 0L, 6L),
+                new KeywordCount(1L, "keyword1", 0L, 2L)));
+
+        KeywordsCounts stored = trackStats1.getKeywordsCounts();
+        List<Statistics> page = service.getStatisticsPage(null, 2);
+
+        assertEquals(List.of(0L, 1L), page.stream().map(Statistics::getId).collect(Collectors.toList()));
+        assertEquals(trackStats2.getTotalSubmissions(), page.get(1).getTotalSubmissions());
+        // the stored statistics are managed entities, the keyword counts shown must not be written back
+        assertSame(stored, trackStats1.getKeywordsCounts());
+        assertEquals(List.of("keyword1"), page.get(0).getKeywordsCounts().getKeywords());
+        assertEquals(List.of(4L), page.get(0).getKeywordsCounts().getCounts());
+        assertEquals(List.of("keyword3", "keyword1"), page.get(1).getKeywordsCounts().getKeywords());
+        assertEquals(List.of(6L, 2L), page.get(1).getKeywordsCounts().getCounts());
+        // the keywords of all tracks of a page are read at once
+        verify(keywordCountRepository, times(1)).findUsedByTrackIds(any());
+    }
+
+    @Test
+    void testGetStatisticsShowsStoredKeywordCounts() throws Exception {
+        when(requestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        when(keywordCountRepository.topByTrackId(0L, Pageable.unpaged()))
+                .thenReturn(List.of(new KeywordTotal("keyword2", 7L), new KeywordTotal("keyword1", 3L)));
+
+        Statistics statistics = service.getStatistics(0L);
+
+        assertEquals(List.of("keyword2", "keyword1"), statistics.getKeywordsCounts().getKeywords());
+        assertEquals(List.of(7L, 3L), statistics.getKeywordsCounts().getCounts());
+    }
+
+    @Test
+    void testGetStatisticsWithTopKeywords() throws Exception {
+        when(requestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        when(keywordCountRepository.topByTrackId(0L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(new KeywordTotal("keyword2", 7L)));
+
+        Statistics statistics = service.getStatistics(0L, 1);
+
+        assertEquals(List.of("keyword2"), statistics.getKeywordsCounts().getKeywords());
+        assertEquals(List.of(7L), statistics.getKeywordsCounts().getCounts());
+        verify(keywordCountRepository, never()).topByTrackId(0L, Pageable.unpaged());
+    }
+
+    private static CompletableFuture<JsonArrayReader<Attendee>> attendees(List<Attendee> attendees)
+            throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return CompletableFuture.completedFuture(new JsonArrayReader<>(objectMapper,
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(attendees)), Attendee.class));
+    }
+}
@@ -1,33 +1,62 @@
 package nl.tudelft.sem.template.submission.unit.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import javassist.NotFoundException;
 import nl.tudelft.sem.template.model.PaperType;
+import nl.tudelft.sem.template.model.Role;
+import nl.tudelft.sem.template.model.SimilarSubmission;
 import nl.tudelft.sem.template.model.Submission;
 import nl.tudelft.sem.template.model.Track;
 import nl.tudelft.sem.template.submission.authentication.AuthManager;
+import nl.tudelft.sem.template.submission.components.cache.RoleCache;
 import nl.tudelft.sem.template.submission.components.chain.DeadlinePassedException;
 import nl.tudelft.sem.template.submission.components.chain.DuplicateSubmissionException;
 import nl.tudelft.sem.template.submission.components.chain.SubmissionValidator;
+import nl.tudelft.sem.template.submission.components.http.JsonArrayReader;
+import nl.tudelft.sem.template.submission.models.Attendee;
 import nl.tudelft.sem.template.submission.models.RequestType;
+import nl.tudelft.sem.template.submission.models.SubmissionCursor;
+import nl.tudelft.sem.template.submission.models.SubmissionRow;
+import nl.tudelft.sem.template.submission.models.SubmissionTitle;
 import nl.tudelft.sem.template.submission.repositories.SubmissionRepository;
+import nl.tudelft.sem.template.submission.repositories.SubmissionTitleRepository;
 import nl.tudelft.sem.template.submission.services.HttpRequestService;
 import nl.tudelft.sem.template.submission.services.StatisticsService;
 import nl.tudelft.sem.template.submission.services.SubmissionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +64,9 @@ public class SubmissionServiceTest {
     @Mock
     private SubmissionRepository submissionRepository;
 
+    @Mock
+    private SubmissionTitleRepository submissionTitleRepository;
+
     @Mock
     private StatisticsService statisticsService;
 
@@ -44,6 +76,12 @@ public class SubmissionServiceTest {
     @Mock
     private AuthManager authManager;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private RoleCache roleCache = new RoleCache();
+
     @Autowired
     @InjectMocks
     private SubmissionService submissionService;
@@ -79,7 +117,8 @@ public class SubmissionServiceTest {
     void testAddSubmission() throws Exception {
         when(httpRequestService.get("track/10", Track.class, RequestType.USER)).thenReturn(mockTrack);
         when(authManager.getEmail()).thenReturn("example@gmail.com");
-        when(httpRequestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("1");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
 
         when(submissionRepository.save(any(Submission.class))).thenReturn(submission);
         ResponseEntity<String> response = submissionService.add(submission);
@@ -93,10 +132,10 @@ public class SubmissionServiceTest {
         submission.setSubmittedBy(0L);
         when(httpRequestService.get("track/10", Track.class, RequestType.USER)).thenReturn(mockTrack);
         when(authManager.getEmail()).thenReturn("example@gmail.com");
-        when(httpRequestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("1");
-        when(submissionRepository.findAllMatching(null, null, submission.getTitle(),
-                null, null, submission.getEventId(), null))
-                .thenReturn(Collections.singletonList(submission));
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        when(submissionTitleRepository.existsByEventIdAndNormalizedTitle(submission.getEventId(),
+                "paypuh titluh")).thenReturn(true);
 
         Exception e = assertThrows(DuplicateSubmissionException.class,
                 () -> {
@@ -104,6 +143,41 @@ public class SubmissionServiceTest {
                 });
 
         assertEquals("A submission with such a title already exists in this event!", e.getMessage());
+        verify(submissionRepository, never()).save(any(Submission.class));
+    }
+
+    @Test
+    void testAddDuplicateSubmissionSavedConcurrently() throws Exception {
+        mockTrack.setSubmitDeadline(LocalDateTime.now().plusDays(1).withNano(0).toString());
+        when(httpRequestService.get("track/10", Track.class, RequestType.USER)).thenReturn(mockTrack);
+        when(authManager.getEmail()).thenReturn("example@gmail.com");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        // the title was not there when checked, but was saved before this submission
+        when(submissionTitleRepository.saveAndFlush(any(SubmissionTitle.class)))
+                .thenThrow(new DataIntegrityViolationException("unique index"));
+
+        assertThrows(DuplicateSubmissionException.class, () -> submissionService.add(submission));
+        verify(submissionRepository, never()).save(any(Submission.class));
+        verify(statisticsService, never()).updateStatistics(any(), any());
+    }
+
+    @Test
+    void testAddValidatedBeforeTransaction() throws Exception {
+        mockTrack.setSubmitDeadline(LocalDateTime.now().plusDays(1).withNano(0).toString());
+        when(httpRequestService.get("track/10", Track.class, RequestType.USER)).thenReturn(mockTrack);
+        when(authManager.getEmail()).thenReturn("example@gmail.com");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+
+        submissionService.add(submission);
+
+        // the requests of the validation chain do not hold a database connection
+        InOrder inOrder = inOrder(httpRequestService, transactionManager, submissionRepository);
+        inOrder.verify(httpRequestService, times(2)).get("track/10", Track.class, RequestType.USER);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(submissionRepository).save(submission);
+        inOrder.verify(transactionManager).commit(any());
     }
 
     @Test
@@ -121,7 +195,10 @@ public class SubmissionServiceTest {
     @Test
     void testDeleteSubmissionNoPermission() {
         when(authManager.getEmail()).thenReturn("example@gmail.com");
-        when(httpRequestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("10");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(10L));
+        when(httpRequestService.getListReaderAsync(anyString(), eq(Attendee.class), eq(RequestType.USER)))
+                .thenAnswer(invocation -> attendees(List.of()));
         Long id = new Random().nextLong();
         when(submissionRepository.findById(id)).thenReturn(Optional.of(submission));
         Exception e = assertThrows(IllegalAccessException.class, () -> {
@@ -135,15 +212,38 @@ public class SubmissionServiceTest {
         Long id = new Random().nextLong();
         when(submissionRepository.findById(id)).thenReturn(Optional.of(submission));
         when(authManager.getEmail()).thenReturn("example@gmail.com");
-        when(httpRequestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("1");
-        Track track = new Track();
-        track.setSubmitDeadline("2024-02-06T23:59:59");
-        when(httpRequestService.get("track/10", Track.class, RequestType.USER)).thenReturn(track);
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        when(httpRequestService.getListReaderAsync(anyString(), eq(Attendee.class), eq(RequestType.USER)))
+                .thenAnswer(invocation -> attendees(List.of()));
 
         ResponseEntity<Void> response = submissionService.delete(id);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(submissionRepository, times(1)).delete(submission);
+        verify(submissionTitleRepository).findById(id);
+        // deleting is not bound to the deadline, so the track is not fetched
+        verify(httpRequestService, never()).get("track/10", Track.class, RequestType.USER);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testDeleteSubmissionRolledBack() {
+        Long id = new Random().nextLong();
+        when(submissionRepository.findById(id)).thenReturn(Optional.of(submission));
+        when(authManager.getEmail()).thenReturn("example@gmail.com");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        when(httpRequestService.getListReaderAsync(anyString(), eq(Attendee.class), eq(RequestType.USER)))
+                .thenAnswer(invocation -> attendees(List.of()));
+        when(submissionTitleRepository.findById(id)).thenThrow(new DataIntegrityViolationException("failed"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> submissionService.delete(id));
+        // the submission is only deleted together with its title
+        verify(submissionRepository).delete(submission);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(statisticsService, never()).updateStatistics(any(), any());
     }
 
     @Test
@@ -165,25 +265,31 @@ public class SubmissionServiceTest {
 
         when(submissionRepository.findById(id)).thenReturn(Optional.of(submission));
         when(authManager.getEmail()).thenReturn("example@gmail.com");
-        when(httpRequestService.getAttribute("user/byEmail/example@gmail.com", RequestType.USER, "id")).thenReturn("1");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        when(httpRequestService.getListReaderAsync(anyString(), eq(Attendee.class), eq(RequestType.USER)))
+                .thenAnswer(invocation -> attendees(List.of()));
         Track track = new Track();
         track.setSubmitDeadline("2024-02-06T23:59:59");
         when(httpRequestService.get("track/10", Track.class, RequestType.USER)).thenReturn(track);
 
         Submission updatedSubmission = new Submission();
+        updatedSubmission.setTitle("New title");
+        updatedSubmission.setEventId(1L);
         ResponseEntity<Submission> response = submissionService.update(id, updatedSubmission);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(submissionRepository, times(1)).save(submission);
+        verify(submissionTitleRepository).saveAndFlush(new SubmissionTitle(submission.getId(), 1L, "new title"));
     }
 
     @Test
-    void testCheckDuplicateSubmissions_NoDuplicates() throws DeadlinePassedException, IllegalAccessException {
+    void testCheckDuplicateSubmissions_NoDuplicates() {
         Submission duplicateSubmission = new Submission();
         duplicateSubmission.setTitle("Duplicate Title");
         duplicateSubmission.setEventId(1L);
-        when(submissionRepository.findAllMatching(null, null, "Duplicate Title", null, null, 1L, null))
-                .thenReturn(Collections.emptyList());
+        when(submissionTitleRepository.existsByEventIdAndNormalizedTitle(1L, "duplicate title"))
+                .thenReturn(false);
 
         boolean result = submissionService.checkDuplicateSubmissions(duplicateSubmission);
 
@@ -191,37 +297,43 @@ public class SubmissionServiceTest {
     }
 
     @Test
-    void testCheckDuplicateSubmissions_WithDuplicates() throws DeadlinePassedException, IllegalAccessException {
+    void testCheckDuplicateSubmissions_WithDuplicates() {
         Submission duplicateSubmission = new Submission();
-        duplicateSubmission.setTitle("Duplicate Title");
-        Submission duplicateSubmission2 = new Submission();
-        duplicateSubmission2.setTitle("Duplicate Title");
-        when(submissionRepository.findAllMatching(null, null, "Duplicate Title", null, null, null, null))
-                .thenReturn(List.of(duplicateSubmission2));
+        duplicateSubmission.setTitle(" DUPLICATE  Title");
+        when(submissionTitleRepository.existsByEventIdAndNormalizedTitle(null, "duplicate title"))
+                .thenReturn(true);
 
         boolean result = submissionService.checkDuplicateSubmissions(duplicateSubmission);
 
         assertFalse(result);
+        verify(submissionRepository, never()).findAllMatching(any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
     void testGetSubmissions() {
-        List<Submission> expectedSubmissions = Arrays.asList(new Submission(), new Submission());
         when(submissionRepository.findAllMatching(null,
-                null, null, null, null, null, null)).thenReturn(expectedSubmissions);
+                null, null, null, null, null, null)).thenReturn(List.of(row(submission)));
+        when(submissionRepository.findKeywordsOf(List.of(submission.getId())))
+                .thenReturn(List.<Object[]>of(new Object[] {submission.getId(), "Keyword1"}));
 
         ResponseEntity<List<Submission>> response = submissionService.get(null,
                 null, null, null, null, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(expectedSubmissions, response.getBody());
+        Submission listed = response.getBody().get(0);
+        assertEquals(submission.getTitle(), listed.getTitle());
+        assertEquals(List.of("Keyword1"), listed.getKeywords());
+        assertNull(listed.getCreated());
+        // the status and dates are hidden on a copy, not on the stored submission
+        assertNotNull(submission.getCreated());
+        verify(submissionRepository, never()).save(any(Submission.class));
     }
 
     @Test
     void testGetWithAllParametersNull() {
         when(submissionRepository.findAllMatching(null, null,
                 null, null, null, null, null))
-                .thenReturn(Collections.singletonList(submission));
+                .thenReturn(Collections.singletonList(row(submission)));
 
         ResponseEntity<List<Submission>> response = submissionService.get(null, null,
                 null, null, null, null, null);
@@ -251,13 +363,296 @@ public class SubmissionServiceTest {
 
     @Test
     void testGetWithAllFiltersNull() {
-        List<Submission> allSubmissions = Arrays.asList(new Submission(), new Submission());
+        List<SubmissionRow> allSubmissions = Arrays.asList(created(1L, null), created(2L, null));
         when(submissionRepository.findAllMatching(null, null, null, null, null, null, null)).thenReturn(allSubmissions);
 
         ResponseEntity<List<Submission>> response = submissionService.get(null, null, null,
                 null, null, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(allSubmissions, response.getBody());
+        assertEquals(List.of(1L, 2L), response.getBody().stream().map(Submission::getId).collect(Collectors.toList()));
+    }
+
+    private static SubmissionRow row(Submission submission) {
+        return new SubmissionRow(submission.getId(), submission.getSubmittedBy(), submission.getTitle(),
+                submission.getTextFilePath(), submission.getAbstract(), submission.getLink(), submission.getTrackId(),
+                submission.getEventId(), submission.getType(), submission.getStatus(), submission.getCreated(),
+                submission.getUpdated());
+    }
+
+    private static SubmissionRow created(long id, LocalDateTime created) {
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setCreated(created);
+        return row(submission);
+    }
+
+    @Test
+    void testGetFirstPage() {
+        when(submissionRepository.findMatchingById(null, null, null, null, 4L, null, null, null,
+                PageRequest.of(0, 2))).thenReturn(List.of(created(3L, null), created(5L, null)));
+
+        ResponseEntity<List<Submission>> response = submissionService.get(null, null, null,
+                null, 4L, null, null, null, 2, null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+        String cursor = response.getHeaders().getFirst("Next-Cursor");
+        assertEquals(new SubmissionCursor(5L, null), SubmissionCursor.decode(cursor));
+        verify(submissionRepository, never()).findAllMatching(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetPageAfterCursor() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        String cursor = new SubmissionCursor(5L, time).encode();
+        when(submissionRepository.findMatchingByCreatedDesc(null, null, null, null, null, null, null, time, 5L,
+                PageRequest.of(0, 100))).thenReturn(List.of(created(2L, time.minusDays(1))));
+
+        ResponseEntity<List<Submission>> response = submissionService.get(null, null, null,
+                null, null, null, null, "-created", null, cursor, null);
+
+        assertEquals(1, response.getBody().size());
+        // the creation date is still hidden
+        assertNull(response.getBody().get(0).getCreated());
+        // the page is not full, so it is the last one
+        assertFalse(response.getHeaders().containsKey("Next-Cursor"));
+    }
+
+    @Test
+    void testGetAllSorted() {
+        when(submissionRepository.findMatchingByIdDesc(null, null, null, null, null, null, null, null,
+                Pageable.unpaged())).thenReturn(List.of(created(2L, null), created(1L, null)));
+
+        ResponseEntity<List<Submission>> response = submissionService.get(null, null, null,
+                null, null, null, null, "-id", null, null, null);
+
+        assertEquals(2, response.getBody().size());
+        assertFalse(response.getHeaders().containsKey("Next-Cursor"));
+    }
+
+    @Test
+    void testGetInvalidPage() {
+        assertThrows(IllegalArgumentException.class, () -> submissionService.get(null, null, null,
+                null, null, null, null, "title", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> submissionService.get(null, null, null,
+                null, null, null, null, null, 0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> submissionService.get(null, null, null,
+                null, null, null, null, null, 10, "not a cursor", null));
+        // a cursor of a page ordered by id has no creation date
+        String cursor = new SubmissionCursor(5L, null).encode();
+        assertThrows(IllegalArgumentException.class, () -> submissionService.get(null, null, null,
+                null, null, null, null, "created", 10, cursor, null));
+    }
+
+    private static SubmissionRow text(long id, String title, String abstractText) {
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setTitle(title);
+        submission.setAbstract(abstractText);
+        return row(submission);
+    }
+
+    private void indexSubmissions() {
+        List<SubmissionRow> rows = List.of(text(1L, "Scheduling jobs", "Jobs on graph clusters."),
+                text(2L, "Graph networks", "Neural networks on graphs."),
+                text(3L, "Compilers", "Register allocation by graph coloring."));
+        when(submissionRepository.findAllMatching(null, null, null, null, null, null, null)).thenReturn(rows);
+        submissionService.buildIndexes();
+        lenient().when(submissionRepository.findRowsByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return rows.stream().filter(row -> ids.contains(row.getId())).collect(Collectors.toList());
+        });
+    }
+
+    private static List<Long> ids(ResponseEntity<List<Submission>> response) {
+        return response.getBody().stream().map(Submission::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testSearchPages() {
+        indexSubmissions();
+
+        ResponseEntity<List<Submission>> first = submissionService.get(null, null, null,
+                null, null, null, null, null, 2, null, "graph networks");
+        assertEquals(List.of(2L, 3L), ids(first));
+        String cursor = first.getHeaders().getFirst("Next-Cursor");
+
+        ResponseEntity<List<Submission>> second = submissionService.get(null, null, null,
+                null, null, null, null, null, 2, cursor, "graph networks");
+        assertEquals(List.of(1L), ids(second));
+        assertFalse(second.getHeaders().containsKey("Next-Cursor"));
+        // without filters no other query is needed
+        verify(submissionRepository, never()).findIdsMatching(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testSearchWithFilters() {
+        indexSubmissions();
+        when(submissionRepository.findIdsMatching(null, null, null, null, 10L, null, null))
+                .thenReturn(List.of(1L, 3L, 4L));
+
+        ResponseEntity<List<Submission>> response = submissionService.get(null, null, null,
+                null, 10L, null, null, null, null, null, "graph");
+
+        assertEquals(List.of(3L, 1L), ids(response));
+        assertFalse(response.getHeaders().containsKey("Next-Cursor"));
+    }
+
+    @Test
+    void testSearchKeptUpToDate() throws Exception {
+        indexSubmissions();
+        Long id = 3L;
+        submission.setId(id);
+        when(submissionRepository.findById(id)).thenReturn(Optional.of(submission));
+        when(authManager.getEmail()).thenReturn("example@gmail.com");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        when(httpRequestService.getListReaderAsync(anyString(), eq(Attendee.class), eq(RequestType.USER)))
+                .thenAnswer(invocation -> attendees(List.of()));
+
+        submissionService.delete(id);
+
+        assertEquals(List.of(2L, 1L), ids(submissionService.get(null, null, null,
+                null, null, null, null, null, null, null, "graph")));
+    }
+
+    @Test
+    void testSearchIndexedOnlyAfterCommit() throws Exception {
+        mockTrack.setSubmitDeadline(LocalDateTime.now().plusDays(1).withNano(0).toString());
+        when(httpRequestService.get("track/10", Track.class, RequestType.USER)).thenReturn(mockTrack);
+        when(authManager.getEmail()).thenReturn("example@gmail.com");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(1L));
+        when(submissionRepository.findRowsByIdIn(any())).thenAnswer(invocation -> List.of(row(submission)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            submissionService.add(submission);
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(), ids(submissionService.get(null, null, null,
+                null, null, null, null, null, null, null, "paypuh")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            submissionService.add(submission);
+            assertEquals(List.of(), ids(submissionService.get(null, null, null,
+                    null, null, null, null, null, null, null, "paypuh")));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(submission.getId()), ids(submissionService.get(null, null, null,
+                null, null, null, null, null, null, null, "paypuh")));
+    }
+
+    @Test
+    void testSearchInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> submissionService.get(null, null, null,
+                null, null, null, null, "id", null, null, "graph"));
+        String cursor = new SubmissionCursor(5L, null).encode();
+        assertThrows(IllegalArgumentException.class, () -> submissionService.get(null, null, null,
+                null, null, null, null, null, null, cursor, "graph"));
+    }
+
+    private static SubmissionRow paper(long id, long eventId, Path textFile) {
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setEventId(eventId);
+        submission.setTrackId(10L);
+        submission.setTextFilePath(textFile.toString());
+        return row(submission);
+    }
+
+    private void indexPapers(Path folder) throws IOException {
+        String text = "We present a scheduler for data processing jobs that places every task on the machine "
+                + "holding most of its input, and we show on a cluster of two hundred machines that this halves "
+                + "the time spent reading remote data while keeping the cluster fully utilized.";
+        Path original = Files.writeString(folder.resolve("1.txt"), text);
+        Path copy = Files.writeString(folder.resolve("2.txt"), text.replace("two hundred", "three hundred"));
+        Path other = Files.writeString(folder.resolve("3.txt"), "Register allocation by graph coloring is slow "
+                + "for large functions, so we propose a linear scan allocator that spills the intervals ending last.");
+        List<SubmissionRow> rows = List.of(paper(1L, 1L, original), paper(2L, 1L, copy),
+                paper(3L, 1L, other), paper(4L, 2L, original), paper(5L, 1L, folder.resolve("missing.txt")));
+        when(submissionRepository.findAllMatching(null, null, null, null, null, null, null)).thenReturn(rows);
+        submissionService.buildIndexes();
+        when(submissionRepository.findRowById(1L)).thenReturn(Optional.of(rows.get(0)));
+        when(authManager.getEmail()).thenReturn("example@gmail.com");
+        when(httpRequestService.getUserIdAsync("example@gmail.com"))
+                .thenReturn(CompletableFuture.completedFuture(7L));
+    }
+
+    @Test
+    void testGetSimilarSubmissions(@TempDir Path folder) throws Exception {
+        indexPapers(folder);
+        when(httpRequestService.getListReaderAsync("attendee/trackId=10", Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(List.of(new Attendee(1L, 7L, 1L, 10L, Role.PC_CHAIR))));
+
+        ResponseEntity<List<SimilarSubmission>> response = submissionService.getSimilar(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(2L), response.getBody().stream()
+                .map(SimilarSubmission::getSubmissionId).collect(Collectors.toList()));
+        assertTrue(response.getBody().get(0).getSimilarity() >= 0.5);
+    }
+
+    @Test
+    void testPaperIndexedOnlyAfterCommit(@TempDir Path folder) throws Exception {
+        indexPapers(folder);
+        when(httpRequestService.getListReaderAsync("attendee/trackId=10", Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(List.of(new Attendee(1L, 7L, 1L, 10L, Role.PC_CHAIR))));
+        mockTrack.setSubmitDeadline(LocalDateTime.now().plusDays(1).withNano(0).toString());
+        when(httpRequestService.get("track/10", Track.class, RequestType.USER)).thenReturn(mockTrack);
+        submission.setTextFilePath(folder.resolve("1.txt").toString());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            submissionService.add(submission);
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(2L), submissionService.getSimilar(1L).getBody().stream()
+                .map(SimilarSubmission::getSubmissionId).collect(Collectors.toList()));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            submissionService.add(submission);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        List<Long> similar = submissionService.getSimilar(1L).getBody().stream()
+                .map(SimilarSubmission::getSubmissionId).collect(Collectors.toList());
+        assertTrue(similar.contains(submission.getId()));
+    }
+
+    @Test
+    void testGetSimilarSubmissionsNoPermission(@TempDir Path folder) throws Exception {
+        indexPapers(folder);
+        when(httpRequestService.getListReaderAsync("attendee/trackId=10", Attendee.class, RequestType.USER))
+                .thenAnswer(invocation -> attendees(List.of(new Attendee(1L, 7L, 1L, 10L, Role.ATTENDEE))));
+
+        Exception e = assertThrows(IllegalAccessException.class, () -> submissionService.getSimilar(1L));
+        assertEquals("User has not enough permissions to see similar submissions.", e.getMessage());
+    }
+
+    @Test
+    void testGetSimilarSubmissionsNotFound() {
+        when(submissionRepository.findRowById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> submissionService.getSimilar(1L));
+    }
+
+    private static CompletableFuture<JsonArrayReader<Attendee>> attendees(List<Attendee> attendees)
+            throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return CompletableFuture.completedFuture(new JsonArrayReader<>(objectMapper,
+                new ByteArrayInputStream(objectMapper.writeValueAsBytes(attendees)), Attendee.class));
     }
 }